@@ -52,11 +52,20 @@ start_grid() {
         return
     fi
     echo -e "${YELLOW}⏳ Esperando que el Grid esté listo...${NC}"
-    sleep 10
+    if ! wait_for_grid; then
+        echo -e "${RED}❌ El Grid no estuvo listo a tiempo.${NC}"
+    fi
     echo -e "${GREEN}✅ Grid iniciado. Verificando estado...${NC}"
     check_grid_status
 }
 
+# Espera activa hasta que el Hub tenga nodos de Chrome y Firefox registrados
+wait_for_grid() {
+    mvn -q test-compile exec:java -Dexec.classpathScope=test \
+        -Dexec.mainClass=com.selenium.grid.test.utils.GridReadinessWaiter \
+        -Dexec.args="--timeout ${GRID_READY_TIMEOUT:-120} --slots chrome=1,firefox=1"
+}
+
 check_grid_status() {
     echo -e "${BLUE}📊 Estado del Selenium Grid:${NC}\n"
     echo -e "${YELLOW}📦 Contenedores:${NC}"
@@ -98,7 +107,6 @@ run_tests() {
     if ! curl -s http://localhost:4444/wd/hub/status > /dev/null; then
         echo -e "${RED}❌ El Grid no está disponible. Iniciando...${NC}"
         start_grid
-        sleep 5
     fi
     echo -e "${YELLOW}⏳ Compilando proyecto...${NC}"
     if ! mvn clean compile; then
@@ -0,0 +1,45 @@
+package com.selenium.grid.test;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openqa.selenium.Capabilities;
+
+import java.util.concurrent.TimeUnit;
+
+///**
+// * ✅ BENCHMARK: CONSTRUCCIÓN DE CAPABILITIES
+// *
+// * En el paquete de los tests para acceder a los métodos package-private:
+// * - SeleniumGridDataProviderTest.getCapabilities(browser)
+// * - QuickAllureTest.opcionesChrome/Firefox/Edge (usadas por crearDriverChrome etc.)
+// */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CapabilitiesBenchmark {
+
+    @Param({"chrome", "firefox", "edge"})
+    public String browser;
+
+    @Benchmark
+    public Capabilities dataProviderCapabilities() {
+        return SeleniumGridDataProviderTest.getCapabilities(browser);
+    }
+
+    @Benchmark
+    public Capabilities quickAllureOptions() {
+        switch (browser) {
+            case "chrome":
+                return QuickAllureTest.opcionesChrome();
+            case "firefox":
+                return QuickAllureTest.opcionesFirefox();
+            default:
+                return QuickAllureTest.opcionesEdge();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.selenium.grid.test.benchmarks;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+///**
+// * ✅ CONTEXTO ALLURE PARA BENCHMARKS
+// *
+// * Allure.step y prepareAttachment necesitan un test en curso en el hilo actual:
+// * - Lifecycle con un writer que descarta los resultados (sin I/O)
+// * - Un test case abierto por hilo de benchmark
+// * - reset() vacía steps/adjuntos acumulados para que la memoria no crezca
+// */
+public final class BenchmarkAllure {
+
+    private static final AllureLifecycle LIFECYCLE = new AllureLifecycle(new DiscardingWriter());
+
+    static {
+        Allure.setLifecycle(LIFECYCLE);
+    }
+
+    private BenchmarkAllure() {
+    }
+
+    /**
+     * ✅ Abre un test case en el hilo actual y devuelve su uuid
+     */
+    public static String startTestCase(String name) {
+        String uuid = UUID.randomUUID().toString();
+        LIFECYCLE.scheduleTestCase(new TestResult().setUuid(uuid).setName(name));
+        LIFECYCLE.startTestCase(uuid);
+        return uuid;
+    }
+
+    public static void reset(String uuid) {
+        LIFECYCLE.updateTestCase(uuid, result -> {
+            result.getSteps().clear();
+            result.getAttachments().clear();
+        });
+    }
+
+    public static void stopTestCase(String uuid) {
+        LIFECYCLE.stopTestCase(uuid);
+        LIFECYCLE.writeTestCase(uuid);
+    }
+
+    private static class DiscardingWriter implements AllureResultsWriter {
+        @Override
+        public void write(TestResult testResult) {
+        }
+
+        @Override
+        public void write(TestResultContainer testResultContainer) {
+        }
+
+        @Override
+        public void write(String source, InputStream attachment) {
+        }
+    }
+}
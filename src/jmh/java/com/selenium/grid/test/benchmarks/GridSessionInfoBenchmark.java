@@ -0,0 +1,49 @@
+package com.selenium.grid.test.benchmarks;
+
+import com.selenium.grid.test.utils.SeleniumGridUtils;
+import com.selenium.grid.test.utils.SeleniumGridUtils.GridSessionInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+///**
+// * ✅ BENCHMARK: GridSessionInfo
+// *
+// * - Construcción desde el driver (capabilities + sessionId) con StubRemoteDriver
+// * - Formateo con toString() (String.format en cada setUp de test)
+// */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GridSessionInfoBenchmark {
+
+    private StubRemoteDriver driver;
+    private GridSessionInfo info;
+
+    @Setup
+    public void setUp() {
+        driver = new StubRemoteDriver("chrome", 16, 16);
+        info = SeleniumGridUtils.getGridSessionInfo(driver);
+    }
+
+    @Benchmark
+    public GridSessionInfo fromDriver() {
+        return SeleniumGridUtils.getGridSessionInfo(driver);
+    }
+
+    @Benchmark
+    public String format() {
+        return info.toString();
+    }
+
+    @Benchmark
+    public String fromDriverAndFormat() {
+        return SeleniumGridUtils.getGridSessionInfo(driver).toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.selenium.grid.test.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.selenium.grid.test.utils.SeleniumGridUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+///**
+// * ✅ BENCHMARK: SeleniumGridUtils.logTestStep
+// *
+// * Coste en el hilo del test de un paso (logback asíncrono + step de Allure):
+// * - INFO: el paso se formatea, se encola y se registra en Allure
+// * - WARN: el paso está desactivado (solo la comprobación de nivel)
+// * - Variante con String ya construido vs Supplier perezoso
+// */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LogTestStepBenchmark {
+
+    private static final int RESET_EVERY = 4096;
+
+    @Param({"INFO", "WARN"})
+    public String level;
+
+    private String testCase;
+    private String browser = "chrome";
+    private String sessionId = "4f1c2e9a";
+    private int calls;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger("com.selenium.grid.test.steps")).setLevel(Level.toLevel(level));
+        testCase = BenchmarkAllure.startTestCase("logTestStep");
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkAllure.stopTestCase(testCase);
+    }
+
+    @Benchmark
+    public void eagerMessage() {
+        SeleniumGridUtils.logTestStep("Driver Init", "Iniciando " + browser + " | sesión " + sessionId);
+        resetPeriodically();
+    }
+
+    @Benchmark
+    public void lazyMessage() {
+        SeleniumGridUtils.logTestStep("Driver Init", () -> "Iniciando " + browser + " | sesión " + sessionId);
+        resetPeriodically();
+    }
+
+    private void resetPeriodically() {
+        // Los steps de Allure se acumulan en el test case: se vacían para no medir el GC de una lista gigante
+        if (++calls % RESET_EVERY == 0) {
+            BenchmarkAllure.reset(testCase);
+        }
+    }
+}
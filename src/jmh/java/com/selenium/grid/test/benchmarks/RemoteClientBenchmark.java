@@ -0,0 +1,77 @@
+package com.selenium.grid.test.benchmarks;
+
+import com.selenium.grid.test.utils.FakeGridServer;
+import com.selenium.grid.test.utils.GridDriverFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+///**
+// * ✅ BENCHMARK: CLIENTE HTTP POR SESIÓN vs COMPARTIDO (GridDriverFactory)
+// *
+// * Contra un FakeGridServer en proceso (sin latencia ni jitter), para aislar el coste del cliente:
+// * - command: RTT de un comando (getTitle) sobre una sesión ya abierta
+// * - sessionLifecycle: nueva sesión + un comando + quit() (cliente nuevo por sesión vs reutilizado)
+// * - clientMode=perSession equivale a new RemoteWebDriver(url, caps)
+// */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RemoteClientBenchmark {
+
+    @Param({"perSession", "shared"})
+    public String clientMode;
+
+    private FakeGridServer server;
+    private GridDriverFactory factory;
+    private URL hubUrl;
+    private ChromeOptions options;
+    private RemoteWebDriver driver;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Sin TCP_NODELAY el HttpServer del JDK suma ~40ms por respuesta (Nagle + ACK retardado)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        // En perSession cada cliente descartado deja su conexión keep-alive abierta hasta el GC:
+        // pasadas 200 el HttpServer las cierra y el siguiente cliente recibe "Connection reset"
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "100000");
+        server = new FakeGridServer().withSlots("chrome", 4).withJitter(0).start();
+        hubUrl = new URL(server.getHubUrl());
+        factory = new GridDriverFactory("shared".equals(clientMode));
+        options = new ChromeOptions();
+        driver = factory.create(hubUrl, options);
+    }
+
+    @TearDown
+    public void tearDown() {
+        driver.quit();
+        factory.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public String command() {
+        return driver.getTitle();
+    }
+
+    @Benchmark
+    public String sessionLifecycle() {
+        RemoteWebDriver session = factory.create(hubUrl, options);
+        try {
+            return session.getTitle();
+        } finally {
+            session.quit();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.selenium.grid.test.benchmarks;
+
+import com.selenium.grid.test.utils.RetryEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.StaleElementReferenceException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+///**
+// * ✅ BENCHMARK: RetryEngine (motor de SeleniumGridUtils.retryOperation)
+// *
+// * Sobrecoste del envoltorio de reintentos (sin esperas reales: delay 0):
+// * - Éxito al primer intento (camino habitual)
+// * - Un fallo transitorio y éxito en el segundo intento (excepción + clasificación + log + backoff)
+// * - Instancia propia con presupuesto ilimitado para no agotar el de la suite
+// */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RetryOperationBenchmark {
+
+    private final RetryEngine engine = new RetryEngine(Integer.MAX_VALUE);
+    private PrintStream originalOut;
+    private int attempts;
+
+    @Setup
+    public void setUp() {
+        // El motor escribe cada fallo en System.out: se descarta para no medir la consola
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Boolean successFirstAttempt() {
+        return engine.execute("benchmark", 3, Duration.ZERO, () -> Boolean.TRUE);
+    }
+
+    @Benchmark
+    public Boolean successAfterOneFailure() {
+        attempts = 0;
+        return engine.execute("benchmark", 3, Duration.ZERO, () -> {
+            if (attempts++ == 0) {
+                throw new StaleElementReferenceException("Elemento aún no visible");
+            }
+            return Boolean.TRUE;
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.selenium.grid.test.benchmarks;
+
+import com.selenium.grid.test.utils.ArtifactPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.OutputType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+///**
+// * ✅ BENCHMARK: RUTA DE ADJUNTO DE SCREENSHOTS
+// *
+// * Screenshot del StubRemoteDriver (base64) + ArtifactPipeline en un directorio temporal:
+// * - attach: coste en el hilo del test (registro en Allure + encolado)
+// * - attachAndFlush: coste total incluida la escritura a disco
+// * - Lotes de BATCH screenshots por iteración para acotar los ficheros generados
+// * - Con -jvmArgsAppend -Dgrid.screenshots.optimize=true se mide también ScreenshotProcessor
+// * - Cada invocación adjunta un screenshot distinto (ScreenshotVariants): con uno fijo,
+// *   la deduplicación por SHA-256 descartaría todos menos el primero y no se mediría el reescalado
+// */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = ScreenshotAttachmentBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = ScreenshotAttachmentBenchmark.BATCH)
+public class ScreenshotAttachmentBenchmark {
+
+    static final int BATCH = 50;
+
+    private String testCase;
+    private Path directory;
+    private ArtifactPipeline pipeline;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        testCase = BenchmarkAllure.startTestCase("screenshots");
+    }
+
+    @Setup(Level.Iteration)
+    public void newPipeline() throws IOException {
+        directory = Files.createTempDirectory("jmh-artifacts");
+        pipeline = new ArtifactPipeline(directory);
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() throws IOException {
+        pipeline.flush(Duration.ofMinutes(1));
+        BenchmarkAllure.reset(testCase);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkAllure.stopTestCase(testCase);
+    }
+
+    @Benchmark
+    public void attach(ScreenshotVariants screenshots) {
+        pipeline.attachBase64Png("screenshot-" + counter++, screenshots.next());
+    }
+
+    @Benchmark
+    public void attachAndFlush(ScreenshotVariants screenshots) {
+        pipeline.attachBase64Png("screenshot-" + counter++, screenshots.next());
+        pipeline.flush(Duration.ofMinutes(1));
+    }
+
+    /**
+     * ✅ Screenshot distinto en cada invocación sin re-codificar el PNG: se inserta tras IHDR un chunk
+     * auxiliar privado ("jmHc", ImageIO lo ignora) y un contador reescribe su contenido directamente
+     * en el base64. El contenido del chunk empieza en múltiplo de 3 bytes, así cada 4 caracteres
+     * base64 corresponden a 3 bytes del chunk y el resto de la imagen no cambia.
+     */
+    @State(Scope.Thread)
+    public static class ScreenshotVariants {
+
+        private static final int IHDR_END = 8 + 25;
+        private static final int COUNTER_CHARS = 8;
+        private static final char[] BASE64_DIGITS =
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+        private char[] base64;
+        private int counterOffset;
+        private long counter;
+
+        @Setup
+        public void setUp() {
+            StubRemoteDriver driver = new StubRemoteDriver("chrome", 1920, 1080);
+            byte[] png = Base64.getDecoder().decode(driver.getScreenshotAs(OutputType.BASE64));
+
+            int dataStart = IHDR_END + 8;
+            int padding = (3 - dataStart % 3) % 3;
+            byte[] data = new byte[padding + COUNTER_CHARS / 4 * 3];
+            ByteBuffer chunk = ByteBuffer.allocate(12 + data.length);
+            chunk.putInt(data.length).put("jmHc".getBytes(StandardCharsets.US_ASCII)).put(data);
+            CRC32 crc = new CRC32();
+            crc.update(chunk.array(), 4, 4 + data.length);
+            chunk.putInt((int) crc.getValue());
+
+            ByteBuffer variant = ByteBuffer.allocate(png.length + chunk.capacity());
+            variant.put(png, 0, IHDR_END).put(chunk.array()).put(png, IHDR_END, png.length - IHDR_END);
+            base64 = Base64.getEncoder().encodeToString(variant.array()).toCharArray();
+            counterOffset = (dataStart + padding) / 3 * 4;
+        }
+
+        /**
+         * ✅ Siguiente screenshot: el contador se escribe en dígitos base64 (el CRC del chunk deja de
+         * cuadrar, pero ImageIO no lo verifica en chunks que ignora)
+         */
+        public String next() {
+            long value = counter++;
+            for (int i = COUNTER_CHARS - 1; i >= 0; i--) {
+                base64[counterOffset + i] = BASE64_DIGITS[(int) (value & 63)];
+                value >>>= 6;
+            }
+            return new String(base64);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.selenium.grid.test.benchmarks;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+///**
+// * ✅ DRIVER SIMULADO PARA BENCHMARKS
+// *
+// * Extiende RemoteWebDriver para recorrer los mismos caminos que con el Grid
+// * (casts, getSessionId, getCapabilities) sin HTTP ni navegador:
+// * - Capabilities y sessionId fijos
+// * - getScreenshotAs devuelve un PNG pregenerado
+// */
+public class StubRemoteDriver extends RemoteWebDriver {
+
+    private final Capabilities capabilities;
+    private final String screenshotBase64;
+
+    public StubRemoteDriver(String browserName, int screenshotWidth, int screenshotHeight) {
+        this.capabilities = new ImmutableCapabilities(
+                "browserName", browserName,
+                "browserVersion", "120.0",
+                "platformName", "linux");
+        this.screenshotBase64 = renderPng(screenshotWidth, screenshotHeight);
+        setSessionId("4f1c2e9a8b7d6c5e4f3a2b1c0d9e8f7a");
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return capabilities;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> outputType) {
+        return outputType.convertFromBase64Png(screenshotBase64);
+    }
+
+    @Override
+    public void quit() {
+        // Nada que cerrar
+    }
+
+    private static String renderPng(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(new Color(66, 133, 244));
+            for (int y = 40; y < height; y += 60) {
+                graphics.fillRect(40, y, width / 2, 20);
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", output);
+            return Base64.getEncoder().encodeToString(output.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
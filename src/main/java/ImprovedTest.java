@@ -1,5 +1,6 @@
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -68,7 +69,7 @@ public class ImprovedTest {
         return allPassed;
     }
 
-    private static WebDriver createDriver(String browserName, String hubUrl) throws MalformedURLException {
+    static WebDriver createDriver(String browserName, String hubUrl) throws MalformedURLException {
         if (browserName.equals("chrome")) {
             ChromeOptions options = new ChromeOptions();
             options.addArguments("--disable-dev-shm-usage", "--no-sandbox", "--disable-gpu", "--window-size=1920,1080");
@@ -77,11 +78,15 @@ public class ImprovedTest {
             FirefoxOptions options = new FirefoxOptions();
             options.addArguments("--width=1920", "--height=1080");
             return new RemoteWebDriver(new URL(hubUrl), options);
+        } else if (browserName.equals("edge")) {
+            EdgeOptions options = new EdgeOptions();
+            options.addArguments("--disable-dev-shm-usage", "--no-sandbox", "--disable-gpu", "--window-size=1920,1080");
+            return new RemoteWebDriver(new URL(hubUrl), options);
         }
         throw new IllegalArgumentException("Navegador no soportado: " + browserName);
     }
 
-    private static boolean navigateToGoogle(WebDriver driver) {
+    static boolean navigateToGoogle(WebDriver driver) {
         System.out.println("  🌐 Test 1: Navegando a Google...");
         driver.get("https://www.google.com");
         String currentUrl = driver.getCurrentUrl();
@@ -94,7 +99,7 @@ public class ImprovedTest {
         }
     }
 
-    private static boolean searchGoogle(WebDriver driver, WebDriverWait wait, String browserName) {
+    static boolean searchGoogle(WebDriver driver, WebDriverWait wait, String browserName) {
         System.out.println("  🔍 Test 2: Realizando búsqueda...");
         try {
             // Aceptar cookies si aparece
@@ -148,7 +153,7 @@ public class ImprovedTest {
         }
     }
 
-    private static boolean navigateToSeleniumDev(WebDriver driver) {
+    static boolean navigateToSeleniumDev(WebDriver driver) {
         System.out.println("  🌐 Test 3: Navegando a Selenium.dev...");
         driver.get("https://www.selenium.dev");
         String title = driver.getTitle();
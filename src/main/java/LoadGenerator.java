@@ -0,0 +1,363 @@
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+///**
+// * ✅ GENERADOR DE CARGA PARA EL GRID
+// *
+// * Reutiliza los escenarios de ImprovedTest (búsqueda en Google, navegación a selenium.dev)
+// * con N usuarios virtuales concurrentes:
+// * - Perfiles de arranque: linear (escalonado uniforme), step (por escalones), spike (todos a la vez)
+// * - Cada usuario repite: crear sesión → escenario → quit, hasta agotar la duración
+// * - Métricas: sesiones/minuto, comandos/segundo, tasa de errores (sesión, escenario, comando)
+// * - --threads virtual: un hilo virtual por usuario (JDK 21+); --max-sessions limita las sesiones
+// *   simultáneas a la capacidad del Grid y el resto de usuarios espera sin coste
+// *
+// * Uso:
+// *   mvn compile exec:java -Dexec.mainClass=LoadGenerator \
+// *       -Dexec.args="--users 10 --ramp-up 60 --duration 300 --profile step --browsers chrome,firefox"
+// *   mvn compile exec:java -Dexec.mainClass=LoadGenerator \
+// *       -Dexec.args="--users 300 --threads virtual --max-sessions 8 --duration 300"
+// */
+public class LoadGenerator {
+
+    private static final PrintStream CONSOLE = System.out;
+    // Llamadas locales del proxy que no llegan al Grid
+    private static final List<String> LOCAL_CALLS = Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "toString", "hashCode", "equals");
+
+    private final String hubUrl;
+    private final int users;
+    private final List<String> browsers;
+    private final String scenario;
+    private final String profile;
+    private final int steps;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final boolean virtualThreads;
+    private final Semaphore gridCapacity;
+
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    private final AtomicInteger waitingForSlot = new AtomicInteger();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+    private final AtomicLong sessionFailures = new AtomicLong();
+    private final AtomicLong sessionCreationMillis = new AtomicLong();
+    private final AtomicLong iterationsPassed = new AtomicLong();
+    private final AtomicLong iterationsFailed = new AtomicLong();
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong commandErrors = new AtomicLong();
+
+    private long startNanos;
+
+    public LoadGenerator(Map<String, String> options) {
+        this.hubUrl = options.getOrDefault("hub", "http://localhost:4444/wd/hub");
+        this.users = intOption(options, "users", 5, 1);
+        this.browsers = Arrays.asList(options.getOrDefault("browsers", "chrome,firefox").split(","));
+        this.scenario = options.getOrDefault("scenario", "mixed");
+        this.profile = options.getOrDefault("profile", "linear");
+        this.steps = intOption(options, "steps", 4, 1);
+        this.rampUp = Duration.ofSeconds(intOption(options, "ramp-up", 30, 0));
+        this.duration = Duration.ofSeconds(intOption(options, "duration", 120, 0));
+        this.virtualThreads = options.getOrDefault("threads", "platform").equals("virtual");
+        this.gridCapacity = new Semaphore(intOption(options, "max-sessions", users, 1), true);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseArgs(args);
+        if (options.containsKey("help")) {
+            printUsage();
+            return;
+        }
+
+        LoadGenerator generator;
+        try {
+            generator = new LoadGenerator(options);
+        } catch (IllegalArgumentException e) {
+            CONSOLE.println("❌ " + e.getMessage());
+            printUsage();
+            return;
+        }
+
+        // Los escenarios de ImprovedTest escriben cada paso en consola: con varios usuarios se silencian
+        if (!options.containsKey("verbose")) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        generator.run();
+    }
+
+    public void run() throws InterruptedException {
+        CONSOLE.println("🚀 GENERADOR DE CARGA - SELENIUM GRID");
+        CONSOLE.println("📍 Hub URL: " + hubUrl);
+        CONSOLE.println(String.format("👥 Usuarios: %d | Navegadores: %s | Escenario: %s | Perfil: %s | Ramp-up: %ds | Duración: %ds",
+                users, browsers, scenario, profile, rampUp.getSeconds(), duration.getSeconds()));
+        CONSOLE.println(String.format("🧵 Hilos: %s | Sesiones simultáneas máx: %d",
+                virtualThreads ? "virtuales" : "plataforma", gridCapacity.availablePermits()));
+        CONSOLE.println("=====================================");
+
+        startNanos = System.nanoTime();
+        long deadline = startNanos + duration.toNanos();
+
+        ExecutorService userPool = createUserPool();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> CONSOLE.println("📈 " + snapshot()), 10, 10, TimeUnit.SECONDS);
+
+        for (int user = 0; user < users; user++) {
+            String browser = browsers.get(user % browsers.size()).trim();
+            int userId = user + 1;
+            long delayMillis = startDelay(user).toMillis();
+            userPool.execute(() -> {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                virtualUser(userId, browser, deadline);
+            });
+        }
+
+        userPool.shutdown();
+        // Margen para que las iteraciones en curso terminen tras la duración
+        if (!userPool.awaitTermination(duration.plusMinutes(5).toMillis(), TimeUnit.MILLISECONDS)) {
+            CONSOLE.println("⚠️ Usuarios sin terminar tras el margen, se interrumpen");
+            userPool.shutdownNow();
+        }
+        reporter.shutdownNow();
+
+        printSummary();
+    }
+
+    /**
+     * ✅ Retardo de arranque de cada usuario según el perfil
+     */
+    private Duration startDelay(int user) {
+        switch (profile) {
+            case "spike":
+                return Duration.ZERO;
+            case "step":
+                int step = user * steps / users;
+                return rampUp.multipliedBy(step).dividedBy(steps);
+            default:
+                return rampUp.multipliedBy(user).dividedBy(users);
+        }
+    }
+
+    /**
+     * ✅ Un hilo por usuario: virtual si se pide y el JDK lo soporta (por reflexión, el proyecto compila con 17).
+     * Duplica la reflexión de com.selenium.grid.test.utils.VirtualThreads: las clases de src/main están
+     * en el paquete por defecto y no ven el classpath de test. Un cambio en una va en las dos.
+     */
+    private ExecutorService createUserPool() {
+        if (virtualThreads) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "load-user-", 1L);
+                ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                CONSOLE.println("⚠️ Hilos virtuales no disponibles en Java " + System.getProperty("java.version")
+                        + " (requiere 21+), se usan hilos de plataforma");
+            }
+        }
+        return Executors.newFixedThreadPool(users);
+    }
+
+    private void virtualUser(int userId, String browser, long deadline) {
+        activeUsers.incrementAndGet();
+        try {
+            int iteration = 0;
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                runIteration(browser, iteration++);
+            }
+        } finally {
+            activeUsers.decrementAndGet();
+            CONSOLE.println("🏁 Usuario " + userId + " (" + browser + ") terminado");
+        }
+    }
+
+    private void runIteration(String browser, int iteration) {
+        // La sesión ocupa un slot del Grid durante toda la iteración
+        waitingForSlot.incrementAndGet();
+        try {
+            gridCapacity.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            waitingForSlot.decrementAndGet();
+        }
+        try {
+            runSession(browser, iteration);
+        } finally {
+            gridCapacity.release();
+        }
+    }
+
+    private void runSession(String browser, int iteration) {
+        WebDriver driver;
+        long creationStart = System.nanoTime();
+        try {
+            driver = new EventFiringDecorator<>(new CommandCounter())
+                    .decorate(ImprovedTest.createDriver(browser, hubUrl));
+            sessionsCreated.incrementAndGet();
+            sessionCreationMillis.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - creationStart));
+        } catch (Exception e) {
+            sessionFailures.incrementAndGet();
+            CONSOLE.println("❌ Error creando sesión " + browser + ": " + e.getMessage());
+            pause();
+            return;
+        }
+
+        boolean passed;
+        try {
+            passed = runScenario(driver, browser, iteration);
+        } catch (Exception e) {
+            passed = false;
+        } finally {
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                // La sesión ya no existe en el Grid
+            }
+        }
+
+        if (passed) {
+            iterationsPassed.incrementAndGet();
+        } else {
+            iterationsFailed.incrementAndGet();
+        }
+    }
+
+    private boolean runScenario(WebDriver driver, String browser, int iteration) {
+        boolean google = scenario.equals("google") || (scenario.equals("mixed") && iteration % 2 == 0);
+        if (google) {
+            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+            return ImprovedTest.navigateToGoogle(driver) && ImprovedTest.searchGoogle(driver, wait, browser);
+        }
+        return ImprovedTest.navigateToSeleniumDev(driver);
+    }
+
+    private void pause() {
+        // Tras un fallo de creación se espera un poco para no martillear el Hub
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String snapshot() {
+        double minutes = Math.max(1e-9, (System.nanoTime() - startNanos) / 60e9);
+        long sessions = sessionsCreated.get();
+        long sessionAttempts = sessions + sessionFailures.get();
+        long iterations = iterationsPassed.get() + iterationsFailed.get();
+        long commandCount = commands.get();
+
+        return String.format(
+                "Activos: %d | Esperando slot: %d | Sesiones: %d (%.1f/min, creación media %d ms) | Errores de sesión: %.1f%% | " +
+                        "Escenarios: %d (%.1f%% fallidos) | Comandos: %d (%.1f/s, %.1f%% con error)",
+                activeUsers.get(), waitingForSlot.get(), sessions, sessions / minutes,
+                sessions == 0 ? 0 : sessionCreationMillis.get() / sessions,
+                percentage(sessionFailures.get(), sessionAttempts),
+                iterations, percentage(iterationsFailed.get(), iterations),
+                commandCount, commandCount / (minutes * 60), percentage(commandErrors.get(), commandCount));
+    }
+
+    private void printSummary() {
+        CONSOLE.println("\n=====================================");
+        CONSOLE.println("📊 RESUMEN DE CARGA");
+        CONSOLE.println(snapshot().replace(" | ", "\n"));
+        CONSOLE.println("=====================================");
+    }
+
+    private static double percentage(long part, long total) {
+        return total == 0 ? 0.0 : part * 100.0 / total;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) continue;
+            String key = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(key, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+
+    /**
+     * ✅ Opción numérica entera con mínimo: 0 usuarios o 0 sesiones no tienen sentido
+     * (pool de hilos vacío, semáforo que nunca concede permisos)
+     */
+    private static int intOption(Map<String, String> options, String key, int defaultValue, int min) {
+        String raw = options.get(key);
+        if (raw == null) {
+            return defaultValue;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + key + " debe ser un número entero: " + raw);
+        }
+        if (value < min) {
+            throw new IllegalArgumentException("--" + key + " debe ser " + min + " o mayor: " + raw);
+        }
+        return value;
+    }
+
+    private static void printUsage() {
+        CONSOLE.println("Uso: LoadGenerator [opciones]");
+        CONSOLE.println("  --hub URL            Hub del Grid (http://localhost:4444/wd/hub)");
+        CONSOLE.println("  --users N            Usuarios virtuales concurrentes (5)");
+        CONSOLE.println("  --browsers a,b       Navegadores en round-robin: chrome,firefox,edge (chrome,firefox)");
+        CONSOLE.println("  --scenario S         google | selenium | mixed (mixed)");
+        CONSOLE.println("  --profile P          linear | step | spike (linear)");
+        CONSOLE.println("  --steps K            Escalones del perfil step (4)");
+        CONSOLE.println("  --ramp-up SEG        Tiempo hasta tener todos los usuarios activos (30)");
+        CONSOLE.println("  --duration SEG       Duración total de la prueba (120)");
+        CONSOLE.println("  --threads T          platform | virtual (platform; virtual requiere Java 21+)");
+        CONSOLE.println("  --max-sessions N     Sesiones simultáneas máximas en el Grid (= usuarios)");
+        CONSOLE.println("  --verbose            Mostrar la salida de cada escenario");
+    }
+
+    /**
+     * ✅ Cuenta comandos WebDriver (driver, elementos, navegación) y los que fallan
+     */
+    private class CommandCounter implements WebDriverListener {
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            if (!LOCAL_CALLS.contains(method.getName())) {
+                commands.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            commands.incrementAndGet();
+            commandErrors.incrementAndGet();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.selenium.grid.test;
 
+import com.selenium.grid.test.utils.CommandLatencyRecorder;
+import com.selenium.grid.test.utils.GridDriverFactory;
+import com.selenium.grid.test.utils.SessionReaper;
+import com.selenium.grid.test.utils.SessionRegistry;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeOptions;
@@ -9,7 +13,6 @@ import org.testng.Assert;
 import org.testng.annotations.*;
 
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.time.Duration;
 
 public class BasicGridConnectionTest {
@@ -22,7 +25,8 @@ public class BasicGridConnectionTest {
     @Parameters({"browser"})
     @BeforeMethod
     public void setUp(@Optional("chrome") String browser) throws MalformedURLException {
-        driver = createWebDriver(browser);
+        driver = CommandLatencyRecorder.instrument(
+                SessionRegistry.shared().register(createWebDriver(browser), browser), browser);
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
         driver.manage().window().maximize();
 
@@ -37,15 +41,15 @@ public class BasicGridConnectionTest {
             case "chrome":
                 ChromeOptions chromeOptions = new ChromeOptions();
                 chromeOptions.addArguments("--disable-dev-shm-usage", "--no-sandbox", "--disable-gpu", "--window-size=1920,1080");
-                return new RemoteWebDriver(new URL(HUB_URL), chromeOptions);
+                return GridDriverFactory.shared().create(HUB_URL, chromeOptions);
             case "firefox":
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
                 firefoxOptions.addArguments("--width=1920", "--height=1080");
-                return new RemoteWebDriver(new URL(HUB_URL), firefoxOptions);
+                return GridDriverFactory.shared().create(HUB_URL, firefoxOptions);
             case "edge":
                 EdgeOptions edgeOptions = new EdgeOptions();
                 edgeOptions.addArguments("--disable-dev-shm-usage", "--no-sandbox", "--disable-gpu", "--window-size=1920,1080");
-                return new RemoteWebDriver(new URL(HUB_URL), edgeOptions);
+                return GridDriverFactory.shared().create(HUB_URL, edgeOptions);
             default:
                 throw new IllegalArgumentException("Navegador no soportado: " + browser + ". Soportados: chrome, firefox, edge");
         }
@@ -101,7 +105,8 @@ public class BasicGridConnectionTest {
     public void tearDown() {
         if (driver != null) {
             System.out.println("🔚 Cerrando sesión del navegador...");
-            driver.quit();
+            SessionReaper.shared().reap(driver, "BasicGridConnectionTest");
+            driver = null;
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.selenium.grid.test;
 
+import com.selenium.grid.test.utils.CommandLatencyRecorder;
+import com.selenium.grid.test.utils.GridDriverFactory;
+import com.selenium.grid.test.utils.SessionCreationMetrics;
+import com.selenium.grid.test.utils.SessionReaper;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
@@ -7,7 +11,6 @@ import org.testng.Assert;
 import org.testng.annotations.*;
 
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.time.Duration;
 
 /**
@@ -31,7 +34,9 @@ public class EdgeSimpleTest {
         edgeOptions.addArguments("--disable-blink-features=AutomationControlled");
 
         try {
-            driver = new RemoteWebDriver(new URL(hubUrl), edgeOptions);
+            WebDriver created = SessionCreationMetrics.forHub(hubUrl)
+                    .create("edge", () -> GridDriverFactory.shared().create(hubUrl, edgeOptions));
+            driver = CommandLatencyRecorder.instrument(created, "edge");
             driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
             driver.manage().window().maximize();
 
@@ -121,13 +126,9 @@ public class EdgeSimpleTest {
     @AfterMethod
     public void tearDown() {
         if (driver != null) {
-            try {
-                System.out.println("🧹 Cerrando Edge...");
-                driver.quit();
-                System.out.println("✅ Edge cerrado correctamente");
-            } catch (Exception e) {
-                System.err.println("⚠️ Error cerrando Edge: " + e.getMessage());
-            }
+            System.out.println("🧹 Cerrando Edge...");
+            SessionReaper.shared().reap(driver, "EdgeSimpleTest");
+            driver = null;
         }
     }
 
@@ -0,0 +1,369 @@
+package com.selenium.grid.test;
+
+import com.selenium.grid.test.utils.CheckpointedSteps;
+import com.selenium.grid.test.utils.CommandLatencyRecorder;
+import com.selenium.grid.test.utils.DriverSessionPool;
+import com.selenium.grid.test.utils.FakeGridServer;
+import com.selenium.grid.test.utils.GridDriverFactory;
+import com.selenium.grid.test.utils.GridHealthMonitor;
+import com.selenium.grid.test.utils.GridSlotScheduler;
+import com.selenium.grid.test.utils.GridTopology;
+import com.selenium.grid.test.utils.RetryEngine;
+import com.selenium.grid.test.utils.SessionCreationMetrics;
+import com.selenium.grid.test.utils.SessionReaper;
+import com.selenium.grid.test.utils.SessionRegistry;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+///**
+// * ✅ TESTS DEL HARNESS CONTRA FakeGridServer (SIN GRID REAL)
+// *
+// * Pool, planificador de slots, reaper, hedging, reintentos y checkpoints contra un Grid falso en proceso:
+// * - Cada test arranca su propio FakeGridServer (puerto libre = Hub distinto para los singletons forHub)
+// * - Al terminar se detienen el monitor y el muestreo de cola de ese Hub (su puerto ya está cerrado)
+// * - Fallos inyectados por el Grid falso para comprobar la clasificación y el presupuesto de RetryEngine
+// * - Fuera de la suite por defecto: mvn -Pfake-grid test (testng-fake-grid.xml)
+// */
+public class FakeGridHarnessTest {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    private FakeGridServer server;
+    private String hubUrl;
+
+    @BeforeMethod
+    public void startServer() throws Exception {
+        server = new FakeGridServer().withSlots("chrome", 2).withJitter(0).start();
+        hubUrl = server.getHubUrl();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        SessionReaper.shared().drain(DRAIN_TIMEOUT);
+        if (server != null) {
+            server.close();
+            GridHealthMonitor.stopHub(hubUrl);
+            SessionCreationMetrics.stopHub(hubUrl);
+        }
+    }
+
+    @Test
+    public void poolReusesReleasedSessionAndClosesItOnShutdown() throws Exception {
+        DriverSessionPool pool = new DriverSessionPool(5, Duration.ofMinutes(4));
+        ChromeOptions options = new ChromeOptions();
+
+        WebDriver first = pool.lease("chrome", options, sessionFactory());
+        first.getTitle();
+        pool.release(first);
+        WebDriver second = pool.lease("chrome", options, sessionFactory());
+
+        Assert.assertSame(second, first, "La sesión devuelta al pool debe reutilizarse");
+        Assert.assertEquals(server.getActiveSessions(), 1, "Solo debe abrirse una sesión en el Grid");
+
+        pool.release(second);
+        pool.shutdown();
+        Assert.assertTrue(SessionReaper.shared().drain(DRAIN_TIMEOUT));
+        Assert.assertEquals(server.getActiveSessions(), 0, "shutdown() debe cerrar las sesiones del pool");
+    }
+
+    @Test
+    public void schedulerDiscountsSlotsHeldByOtherClients() throws Exception {
+        // Otro cliente del Hub ocupa uno de los dos slots
+        RemoteWebDriver external = GridDriverFactory.shared().create(hubUrl, new ChromeOptions());
+        awaitBusySlots(1);
+        GridSlotScheduler scheduler = new GridSlotScheduler(hubUrl);
+
+        Assert.assertTrue(scheduler.acquire("chrome", Duration.ofSeconds(1)), "Queda un slot libre");
+        Assert.assertFalse(scheduler.acquire("chrome", Duration.ofMillis(500)),
+                "El slot del cliente externo no debe asignarse");
+
+        external.quit();
+        Assert.assertTrue(scheduler.acquire("chrome", Duration.ofSeconds(5)),
+                "Al cerrar la sesión externa el slot vuelve a estar disponible");
+        Assert.assertFalse(scheduler.acquire("firefox", Duration.ofSeconds(1)),
+                "Un navegador sin nodos se rechaza");
+
+        scheduler.release("chrome");
+        scheduler.release("chrome");
+        Assert.assertEquals(scheduler.inUse("chrome"), 0);
+    }
+
+    @Test
+    public void schedulerAdmitsForFreeOnlyWithAReusableSessionForTheSameCapabilities() throws Exception {
+        ChromeOptions pooled = new ChromeOptions();
+        ChromeOptions other = new ChromeOptions().addArguments("--headless=new");
+        DriverSessionPool pool = DriverSessionPool.shared();
+        // Una sesión ociosa en el pool ocupa uno de los dos slots
+        pool.release(pool.lease("chrome", pooled, sessionFactory()));
+        GridSlotScheduler scheduler = new GridSlotScheduler(hubUrl);
+        try {
+            Assert.assertTrue(scheduler.acquire("chrome", other, Duration.ofSeconds(1)), "Queda un slot libre");
+            Assert.assertFalse(scheduler.acquire("chrome", other, Duration.ofMillis(500)),
+                    "La sesión ociosa de otras capabilities no se puede reutilizar: no hay slot");
+            Assert.assertTrue(scheduler.acquire("chrome", pooled, Duration.ofSeconds(1)),
+                    "Con las mismas capabilities el test reutiliza la sesión ociosa");
+        } finally {
+            scheduler.release("chrome");
+            scheduler.release("chrome");
+            pool.invalidate(pool.lease("chrome", pooled, sessionFactory()));
+        }
+        Assert.assertTrue(SessionReaper.shared().drain(DRAIN_TIMEOUT));
+        Assert.assertEquals(server.getActiveSessions(), 0);
+    }
+
+    @Test
+    public void reaperQuitsSessionsAndUnregistersThem() throws Exception {
+        WebDriver driver = SessionCreationMetrics.forHub(hubUrl)
+                .create("chrome", () -> GridDriverFactory.shared().create(hubUrl, new ChromeOptions()));
+        String id = shortId(driver);
+        Assert.assertEquals(server.getActiveSessions(), 1);
+        Assert.assertTrue(isRegistered(id), "La sesión creada por el harness queda registrada");
+
+        reap(driver);
+
+        Assert.assertEquals(server.getActiveSessions(), 0, "quit() debe cerrar la sesión en el Grid");
+        Assert.assertFalse(isRegistered(id), "Tras el quit() la sesión se da de baja del registro");
+    }
+
+    @Test
+    public void hedgedCreationKeepsWinnerAndReapsLoser() throws Exception {
+        SessionCreationMetrics metrics = SessionCreationMetrics.forHub(hubUrl);
+        requireHedging(metrics);
+
+        WebDriver driver = createAfterHistory(metrics);
+        try {
+            // La perdedora llega en segundo plano: se cierra cuando termina la petición lenta
+            awaitActiveSessions(1);
+            awaitNoHedgesInFlight(metrics);
+
+            Map<String, Object> hedging = hedging(metrics);
+            Assert.assertEquals(hedging.get("hedgesIssued"), 1L, "La creación lenta debe lanzar un hedge");
+            Assert.assertEquals(hedging.get("hedgeWins"), 1L, "Gana la petición hedge");
+            Assert.assertEquals(hedging.get("losersReaped"), 1L, "La sesión perdedora se entrega al reaper");
+        } finally {
+            reap(driver);
+        }
+        Assert.assertEquals(server.getActiveSessions(), 0);
+    }
+
+    @Test
+    public void hedgeIsSkippedWithoutSpareSlot() throws Exception {
+        SessionCreationMetrics metrics = SessionCreationMetrics.forHub(hubUrl);
+        requireHedging(metrics);
+
+        // Los dos slots del Grid están ocupados por permisos del planificador
+        GridSlotScheduler scheduler = GridSlotScheduler.forHub(hubUrl);
+        Assert.assertTrue(scheduler.acquire("chrome", Duration.ofSeconds(1)));
+        Assert.assertTrue(scheduler.acquire("chrome", Duration.ofSeconds(1)));
+        WebDriver driver = null;
+        try {
+            driver = createAfterHistory(metrics);
+            Map<String, Object> hedging = hedging(metrics);
+            Assert.assertEquals(hedging.get("hedgesIssued"), 0L);
+            Assert.assertEquals(hedging.get("hedgesSkipped"), 1L, "Sin slot libre no se lanza el hedge");
+        } finally {
+            if (driver != null) reap(driver);
+            scheduler.release("chrome");
+            scheduler.release("chrome");
+        }
+    }
+
+    @Test
+    public void retryEngineRetriesInjectedSessionFailuresUntilBudgetRunsOut() throws Exception {
+        try (FakeGridServer failing = new FakeGridServer().withSlots("chrome", 1).withJitter(0)
+                .withFailureRate("newSession", 1.0).start()) {
+            URL failingHub = new URL(failing.getHubUrl());
+            RetryEngine retries = new RetryEngine(2);
+            AtomicInteger attempts = new AtomicInteger();
+
+            SessionNotCreatedException failure = Assert.expectThrows(SessionNotCreatedException.class,
+                    () -> retries.execute("newSession", 5, Duration.ZERO, () -> {
+                        attempts.incrementAndGet();
+                        return GridDriverFactory.shared().create(failingHub, new ChromeOptions());
+                    }));
+
+            Assert.assertEquals(RetryEngine.classify(failure), RetryEngine.FailureKind.SESSION_NOT_CREATED);
+            Assert.assertEquals(attempts.get(), 3, "Intento inicial + los 2 reintentos del presupuesto");
+            Assert.assertEquals(retries.getRemainingBudget(), 0);
+            Assert.assertEquals(failing.getActiveSessions(), 0, "Las creaciones fallidas no dejan slots ocupados");
+        }
+    }
+
+    @Test
+    public void retryEngineFailsFastOnInjectedCommandErrorsAndLostSessions() throws Exception {
+        try (FakeGridServer failing = new FakeGridServer().withSlots("chrome", 1).withJitter(0)
+                .withFailureRate("getTitle", 1.0).start()) {
+            RemoteWebDriver driver = GridDriverFactory.shared().create(failing.getHubUrl(), new ChromeOptions());
+            RetryEngine retries = new RetryEngine(5);
+            AtomicInteger attempts = new AtomicInteger();
+            try {
+                // "unknown error" del Grid: no es transitorio
+                WebDriverException failure = Assert.expectThrows(WebDriverException.class,
+                        () -> retries.execute("getTitle", 3, Duration.ZERO, () -> {
+                            attempts.incrementAndGet();
+                            return driver.getTitle();
+                        }));
+                Assert.assertEquals(RetryEngine.classify(failure), RetryEngine.FailureKind.OTHER);
+                Assert.assertEquals(attempts.get(), 1);
+
+                // Sesión cerrada en el Hub ("invalid session id"): tampoco se reintenta
+                HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                                URI.create(failing.getHubUrl() + "/session/" + driver.getSessionId())).DELETE().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                NoSuchSessionException lost = Assert.expectThrows(NoSuchSessionException.class,
+                        () -> retries.execute("getCurrentUrl", 3, Duration.ZERO, driver::getCurrentUrl));
+                Assert.assertEquals(RetryEngine.classify(lost), RetryEngine.FailureKind.SESSION_LOST);
+                Assert.assertEquals(retries.getRemainingBudget(), 5, "Los fallos permanentes no gastan presupuesto");
+            } finally {
+                reap(driver);
+            }
+        }
+    }
+
+    @Test
+    public void checkpointedStepsRerunOnlyTheFailedStepAndItsDependencies() throws Exception {
+        RemoteWebDriver driver = GridDriverFactory.shared().create(hubUrl, new ChromeOptions());
+        RetryEngine retries = new RetryEngine(5);
+        List<String> executed = new ArrayList<>();
+        List<List<String>> reruns = new ArrayList<>();
+        AtomicInteger searches = new AtomicInteger();
+        AtomicInteger verifications = new AtomicInteger();
+
+        CheckpointedSteps steps = new CheckpointedSteps()
+                .step("Navegación", () -> {
+                    executed.add("Navegación");
+                    driver.get("https://example.com");
+                })
+                .step("Consentimiento", () -> executed.add("Consentimiento"), "Navegación")
+                .step("Búsqueda", () -> {
+                    executed.add("Búsqueda");
+                    if (searches.incrementAndGet() == 1) {
+                        throw new TimeoutException("Búsqueda lenta");
+                    }
+                }, "Navegación")
+                .verify("Resultados", () -> {
+                    executed.add("Resultados");
+                    Assert.assertTrue(verifications.incrementAndGet() > 1, "Aún sin resultados");
+                });
+        try {
+            steps.run((step, failure, attempt, stepsToRerun) -> {
+                reruns.add(new ArrayList<>(stepsToRerun));
+                return retries.shouldRetry(step, failure, attempt, 3, steps.isVerification(step));
+            });
+        } finally {
+            reap(driver);
+        }
+
+        // Repetir la búsqueda exige volver a navegar, y navegar exige repetir el consentimiento
+        Assert.assertEquals(reruns.get(0), Arrays.asList("Navegación", "Consentimiento", "Búsqueda"));
+        // La verificación se reintenta sola
+        Assert.assertEquals(reruns.get(1), Arrays.asList("Resultados"));
+        Assert.assertEquals(executed, Arrays.asList("Navegación", "Consentimiento", "Búsqueda",
+                "Navegación", "Consentimiento", "Búsqueda", "Resultados", "Resultados"));
+        Assert.assertEquals(steps.getAttempts(), 3);
+        Assert.assertEquals(retries.getRemainingBudget(), 3);
+    }
+
+    private Callable<WebDriver> sessionFactory() {
+        return () -> CommandLatencyRecorder.instrument(SessionCreationMetrics.forHub(hubUrl)
+                .create("chrome", () -> GridDriverFactory.shared().create(hubUrl, new ChromeOptions())), "chrome");
+    }
+
+    /**
+     * Crea sesiones rápidas hasta tener historial para el p95 y después una lenta (la primera petición
+     * tarda 1s, la siguiente responde al momento). Una sesión previa sin medir calienta el cliente HTTP:
+     * la primera creación de la JVM superaría por sí sola el segundo de la petición lenta.
+     */
+    private WebDriver createAfterHistory(SessionCreationMetrics metrics) throws Exception {
+        GridDriverFactory.shared().create(hubUrl, new ChromeOptions()).quit();
+        for (int i = 0; i < 5; i++) {
+            reap(metrics.create("chrome", () -> GridDriverFactory.shared().create(hubUrl, new ChromeOptions())));
+        }
+        AtomicInteger attempts = new AtomicInteger();
+        return metrics.create("chrome", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(1000);
+            }
+            return GridDriverFactory.shared().create(hubUrl, new ChromeOptions());
+        });
+    }
+
+    // Cierre por SessionReaper: también da de baja la sesión en SessionRegistry
+    private static void reap(WebDriver driver) {
+        SessionReaper.shared().reap(driver, "FakeGridHarnessTest");
+        Assert.assertTrue(SessionReaper.shared().drain(DRAIN_TIMEOUT), "El reaper no terminó a tiempo");
+    }
+
+    private static boolean isRegistered(String shortId) {
+        return SessionRegistry.shared().getOpenSessions().stream().anyMatch(open -> open.contains(shortId));
+    }
+
+    private static void requireHedging(SessionCreationMetrics metrics) {
+        if (!Boolean.TRUE.equals(hedging(metrics).get("enabled"))) {
+            throw new SkipException("Requiere -Dgrid.hedge.enabled=true (perfil fake-grid)");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> hedging(SessionCreationMetrics metrics) {
+        return (Map<String, Object>) metrics.snapshot().get("hedging");
+    }
+
+    // El planificador lee la topología del monitor, que se refresca cada grid.health.pollMillis
+    private void awaitBusySlots(int busy) throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            GridTopology topology = GridHealthMonitor.forHub(hubUrl).getTopology();
+            if (topology != null && topology.totalSlots("chrome") - topology.freeSlots("chrome") == busy) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        Assert.fail("La topología del monitor no refleja " + busy + " slots ocupados");
+    }
+
+    // Las sesiones perdedoras se cierran en segundo plano
+    private void awaitActiveSessions(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (server.getActiveSessions() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(server.getActiveSessions(), expected);
+    }
+
+    private static void awaitNoHedgesInFlight(SessionCreationMetrics metrics) throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (metrics.hedgesInFlight("chrome") > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(metrics.hedgesInFlight("chrome"), 0, "El hedge sobrante sigue contando como slot ocupado");
+    }
+
+    private static String shortId(WebDriver driver) {
+        String sessionId = String.valueOf(((RemoteWebDriver) driver).getSessionId());
+        return sessionId.substring(0, Math.min(8, sessionId.length()));
+    }
+}
@@ -1,5 +1,10 @@
 package com.selenium.grid.test;
 
+import com.selenium.grid.test.utils.CommandLatencyRecorder;
+import com.selenium.grid.test.utils.GridDriverFactory;
+import com.selenium.grid.test.utils.MultiSelectorLocator;
+import com.selenium.grid.test.utils.SessionCreationMetrics;
+import com.selenium.grid.test.utils.SessionReaper;
 import io.qameta.allure.*;
 import org.testng.Assert;
 import org.testng.annotations.*;
@@ -8,11 +13,8 @@ import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.time.Duration;
 
 @Epic("Selenium Grid Testing")
@@ -23,9 +25,9 @@ public class QuickAllureTest {
     private static final String SEARCH_TERM = "Selenium Grid Docker";
     private static final Duration TIMEOUT = Duration.ofSeconds(30);
     private static final Duration IMPLICIT_WAIT = Duration.ofSeconds(10);
+    private static final Duration CONSENT_TIMEOUT = Duration.ofSeconds(5);
 
     private WebDriver driver;
-    private WebDriverWait wait;
 
     @BeforeMethod
     @Step("Configurando el entorno de pruebas")
@@ -41,8 +43,10 @@ public class QuickAllureTest {
         if (driver != null) {
             try {
                 System.out.println("🧹 Limpiando recursos");
-                Allure.addAttachment("Browser Info", getBrowserInfo());
-                driver.quit();
+                String browserInfo = getBrowserInfo();
+                Allure.addAttachment("Browser Info", browserInfo);
+                SessionReaper.shared().reap(driver, browserInfo);
+                driver = null;
             } catch (Exception e) {
                 System.err.println("❌ Error en cleanup: " + e.getMessage());
                 Allure.addAttachment("Cleanup Error", e.getMessage());
@@ -83,7 +87,6 @@ public class QuickAllureTest {
 
         // Inicializar driver
         driver = inicializarDriver(browserName);
-        wait = new WebDriverWait(driver, TIMEOUT);
 
         // Configurar navegador
         configurarNavegador();
@@ -102,45 +105,57 @@ public class QuickAllureTest {
     private WebDriver inicializarDriver(String browserName) throws MalformedURLException {
         System.out.println("🔧 Inicializando driver para: " + browserName);
 
-        switch (browserName.toLowerCase()) {
-            case "chrome":
-                return crearDriverChrome();
-            case "firefox":
-                return crearDriverFirefox();
-            case "edge":
-                return crearDriverEdge();
-            default:
-                throw new IllegalArgumentException("Navegador no soportado: " + browserName);
-        }
+        WebDriver created = SessionCreationMetrics.forHub(HUB_URL).create(browserName, () -> {
+            switch (browserName.toLowerCase()) {
+                case "chrome":
+                    return crearDriverChrome();
+                case "firefox":
+                    return crearDriverFirefox();
+                case "edge":
+                    return crearDriverEdge();
+                default:
+                    throw new IllegalArgumentException("Navegador no soportado: " + browserName);
+            }
+        });
+        return CommandLatencyRecorder.instrument(created, browserName);
     }
 
     private WebDriver crearDriverChrome() throws MalformedURLException {
+        return GridDriverFactory.shared().create(HUB_URL, opcionesChrome());
+    }
+
+    private WebDriver crearDriverFirefox() throws MalformedURLException {
+        return GridDriverFactory.shared().create(HUB_URL, opcionesFirefox());
+    }
+
+    private WebDriver crearDriverEdge() throws MalformedURLException {
+        return GridDriverFactory.shared().create(HUB_URL, opcionesEdge());
+    }
+
+    static ChromeOptions opcionesChrome() {
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--disable-dev-shm-usage", "--no-sandbox", "--disable-gpu");
         options.addArguments("--window-size=1920,1080");
         options.addArguments("--disable-blink-features=AutomationControlled");
         options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-
-        return new RemoteWebDriver(new URL(HUB_URL), options);
+        return options;
     }
 
-    private WebDriver crearDriverFirefox() throws MalformedURLException {
+    static FirefoxOptions opcionesFirefox() {
         FirefoxOptions options = new FirefoxOptions();
         options.addArguments("--width=1920", "--height=1080");
         options.addPreference("general.useragent.override",
                 "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-
-        return new RemoteWebDriver(new URL(HUB_URL), options);
+        return options;
     }
 
-    private WebDriver crearDriverEdge() throws MalformedURLException {
+    static EdgeOptions opcionesEdge() {
         EdgeOptions options = new EdgeOptions();
         options.addArguments("--disable-dev-shm-usage", "--no-sandbox", "--disable-gpu");
         options.addArguments("--window-size=1920,1080");
         options.addArguments("--disable-blink-features=AutomationControlled");
         options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-
-        return new RemoteWebDriver(new URL(HUB_URL), options);
+        return options;
     }
 
     @Step("Configurando navegador")
@@ -218,52 +233,32 @@ public class QuickAllureTest {
     }
 
     private void manejarCookiesGoogle() {
-        String[] cookieSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findAnyVisible(driver, CONSENT_TIMEOUT,
                 "#L2AGLb",
                 "button[id='L2AGLb']",
-                ".QS5gu",
-                "button:contains('Acepto')",
-                "button:contains('Accept all')"
-        };
+                ".QS5gu"
+        );
 
-        for (String selector : cookieSelectors) {
-            try {
-                WebElement acceptButton = wait.until(
-                        ExpectedConditions.elementToBeClickable(By.cssSelector(selector))
-                );
-                if (acceptButton.isDisplayed()) {
-                    acceptButton.click();
-                    System.out.println("✅ Cookies aceptadas");
-                    return;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        if (match != null) {
+            match.getElement().click();
+            System.out.println("✅ Cookies aceptadas");
+            return;
         }
         System.out.println("ℹ️ No se encontró diálogo de cookies");
     }
 
     private WebElement buscarInputBusqueda() {
-        String[] inputSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findAnyVisible(driver, TIMEOUT,
                 "input[name='q']",
                 "textarea[name='q']",
                 "#APjFqb",
                 ".gLFyf",
                 "input[type='search']"
-        };
+        );
 
-        for (String selector : inputSelectors) {
-            try {
-                WebElement input = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (input.isDisplayed()) {
-                    System.out.println("✅ Input de búsqueda encontrado");
-                    return input;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        if (match != null) {
+            System.out.println("✅ Input de búsqueda encontrado");
+            return match.getElement();
         }
         return null;
     }
@@ -271,27 +266,18 @@ public class QuickAllureTest {
     private void verificarResultadosBusqueda() {
         System.out.println("🔍 Verificando resultados de búsqueda");
 
-        String[] resultSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findFirstVisible(driver, TIMEOUT,
                 "#search",
                 "#rso",
                 "#main",
                 ".g",
                 ".MjjYud"
-        };
+        );
 
-        for (String selector : resultSelectors) {
-            try {
-                WebElement results = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (results.isDisplayed()) {
-                    System.out.println("✅ Resultados encontrados");
-                    Allure.step("Resultados de búsqueda verificados");
-                    return;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        if (match != null) {
+            System.out.println("✅ Resultados encontrados");
+            Allure.step("Resultados de búsqueda verificados");
+            return;
         }
 
         // Verificación alternativa por URL
@@ -305,27 +291,18 @@ public class QuickAllureTest {
     }
 
     private WebElement buscarLogoSelenium() {
-        String[] logoSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findFirstVisible(driver, TIMEOUT,
                 "img[alt*='Selenium']",
                 "img[src*='selenium']",
                 ".selenium-logo",
                 "img[class*='logo']",
                 "header img",
                 ".navbar-brand img"
-        };
+        );
 
-        for (String selector : logoSelectors) {
-            try {
-                WebElement logo = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (logo.isDisplayed()) {
-                    System.out.println("✅ Logo/imagen encontrada");
-                    return logo;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        if (match != null) {
+            System.out.println("✅ Logo/imagen encontrada");
+            return match.getElement();
         }
 
         // Verificación alternativa: cualquier imagen en el header
@@ -1,5 +1,19 @@
 package com.selenium.grid.test;
 
+import com.selenium.grid.test.utils.ArtifactPipeline;
+import com.selenium.grid.test.utils.CheckpointedSteps;
+import com.selenium.grid.test.utils.CommandLatencyRecorder;
+import com.selenium.grid.test.utils.DriverSessionPool;
+import com.selenium.grid.test.utils.DurationShardingListener;
+import com.selenium.grid.test.utils.GridDriverFactory;
+import com.selenium.grid.test.utils.GridHealthMonitor;
+import com.selenium.grid.test.utils.GridSlotScheduler;
+import com.selenium.grid.test.utils.GridTopology;
+import com.selenium.grid.test.utils.MultiSelectorLocator;
+import com.selenium.grid.test.utils.RetryEngine;
+import com.selenium.grid.test.utils.SessionCreationMetrics;
+import com.selenium.grid.test.utils.TestLogger;
+import com.selenium.grid.test.utils.TestScope;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 import org.openqa.selenium.*;
@@ -10,18 +24,25 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
 import org.testng.SkipException;
 import org.testng.annotations.*;
 
-import java.io.ByteArrayInputStream;
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.Supplier;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 ///**
 // * ✅ SELENIUM GRID DATA PROVIDER TEST - CON UTILIDADES INTEGRADAS
@@ -31,125 +52,193 @@ import java.util.function.Supplier;
 // * - Verificación de Grid disponible
 // * - Información detallada de sesión
 // * - Limpieza automática de estado
-// * - Retry con exponential backoff
+// * - Retry con exponential backoff y jitter solo para fallos transitorios (RetryEngine)
+// * - Reintento por pasos con checkpoints (CheckpointedSteps)
 // * - Logging avanzado con timestamps
 // * - Validaciones robustas
 // * - Manejo inteligente de ventanas
-// * - Health checks del Grid
+// * - Health checks del Grid (monitor en segundo plano con circuit breaker)
+// * - Navegadores del DataProvider según los stereotypes anunciados por el Grid
+// * - Precarga de la sesión del siguiente test mientras corre el actual (si hay slot libre)
+// * - Estado por invocación en un TestScope en lugar de ThreadLocals
 // */
 public class SeleniumGridDataProviderTest {
 
     private static final String HUB_URL = "http://localhost:4444/wd/hub";
     private static final Duration IMPLICIT_WAIT = Duration.ofSeconds(10);
     private static final Duration EXPLICIT_WAIT = Duration.ofSeconds(30);
+    private static final Duration CONSENT_WAIT = Duration.ofSeconds(5);
+    private static final Duration RESULTS_WAIT = Duration.ofSeconds(10);
+    private static final Duration SLOT_WAIT = Duration.ofMinutes(5);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(2);
     private static final DateTimeFormatter TIMESTAMP_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final List<String> CANDIDATE_BROWSERS =
+            Arrays.asList(System.getProperty("grid.browsers", "chrome,firefox,edge").split(","));
+    private static final String SERVABLE_BROWSERS_ATTRIBUTE = "grid.servableBrowsers";
 
-    // ✅ ThreadLocal para concurrencia segura
-    private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
-    private static final ThreadLocal<WebDriverWait> waitThreadLocal = new ThreadLocal<>();
-    private static final ThreadLocal<GridSessionInfo> sessionInfoThreadLocal = new ThreadLocal<>();
+    // ✅ Estado de cada invocación en su TestScope (independiente del hilo que la ejecuta)
+    private static final TestScope.Key<WebDriver> DRIVER = new TestScope.Key<>("driver");
+    private static final TestScope.Key<WebDriverWait> WAIT = new TestScope.Key<>("wait");
+    private static final TestScope.Key<GridSessionInfo> SESSION_INFO = new TestScope.Key<>("sessionInfo");
+    private static final TestScope.Key<String> SLOT = new TestScope.Key<>("slot");
+
+    // Invocaciones ya iniciadas por navegador en cada <test>, para saber cuántos tests quedan por pedir sesión
+    private static final String STARTED_INVOCATIONS_ATTRIBUTE = "grid.startedInvocations";
 
     @DataProvider(name = "browsers", parallel = true)
-    public Object[][] browserProvider() {
-        return new Object[][]{
-                {"chrome"},
-                {"firefox"},
-                {"edge"}
-        };
+    public Object[][] browserProvider(ITestContext context) {
+        List<String> browsers = servableBrowsers(context.getSuite());
+        Object[][] data = new Object[browsers.size()][];
+        for (int i = 0; i < browsers.size(); i++) {
+            data[i] = new Object[]{browsers.get(i)};
+        }
+        return data;
+    }
+
+    /**
+     * ✅ Navegadores candidatos (grid.browsers) que el Grid anuncia en sus stereotypes.
+     * Se calcula una vez por suite; los que no tienen nodos se omiten sin crear sesión.
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized List<String> servableBrowsers(ISuite suite) {
+        Object cached = suite.getAttribute(SERVABLE_BROWSERS_ATTRIBUTE);
+        if (cached != null) {
+            return (List<String>) cached;
+        }
+
+        GridTopology topology = GridHealthMonitor.forHub(HUB_URL).getTopology();
+        List<String> servable = new ArrayList<>();
+        for (String candidate : CANDIDATE_BROWSERS) {
+            String browser = candidate.trim();
+            if (browser.isEmpty()) continue;
+
+            if (topology == null || topology.totalSlots(browser) > 0) {
+                // Sin topología no se filtra: setUp marcará los tests como skip por Grid caído
+                servable.add(browser);
+            } else {
+                TestLogger.warn("Browser Discovery", () -> browser + " omitido: ningún nodo del Grid anuncia el stereotype '"
+                        + GridTopology.normalizeBrowser(browser) + "' (anunciados: " + topology.browsers() + ")");
+            }
+        }
+
+        TestLogger.step("Browser Discovery", () -> "Navegadores servibles por el Grid: " + servable);
+        suite.setAttribute(SERVABLE_BROWSERS_ATTRIBUTE, servable);
+        return servable;
     }
 
     @BeforeMethod
     @Step("Configurando entorno para {browser}")
-    public void setUp(Object[] testData) {
+    public void setUp(Object[] testData, ITestContext context, ITestResult testResult) {
         String browser = (String) testData[0];
+        TestScope scope = TestScope.open(testResult);
+        int started = startedInvocations(context).computeIfAbsent(browser, b -> new AtomicInteger()).incrementAndGet();
 
         try {
-            // ✅ 1. Verificar que el Grid esté disponible
-            if (!isGridAvailable(HUB_URL)) {
-                logTestStep("Grid Check", "Grid no disponible en " + HUB_URL);
-                throw new SkipException("Selenium Grid no está disponible en: " + HUB_URL);
+            // ✅ 1. Verificar que el Grid esté disponible (estado del monitor, sin llamada de red)
+            GridHealthMonitor health = GridHealthMonitor.forHub(HUB_URL);
+            if (!health.isAvailable()) {
+                logTestStep("Grid Check", health.describe());
+                throw new SkipException(health.describe());
             }
 
-            // ✅ 2. Inicializar driver
+            // ✅ 2. Esperar un slot libre del navegador en el Grid
+            acquireGridSlot(browser);
+
+            // ✅ 3. Inicializar driver
             initializeDriver(browser);
+            prefetchNextSession(browser, pendingInvocations(context, started));
 
-            // ✅ 3. Obtener información de sesión
+            // ✅ 4. Obtener información de sesión
             GridSessionInfo sessionInfo = getGridSessionInfo(getDriver());
-            sessionInfoThreadLocal.set(sessionInfo);
+            scope.set(SESSION_INFO, sessionInfo);
+            TestLogger.bindSession(scope, browser, sessionInfo.getSessionId());
 
-            // ✅ 4. Limpiar estado inicial del navegador
+            // ✅ 5. Limpiar estado inicial del navegador
             cleanBrowserState(getDriver());
 
             logTestStep("Setup Complete",
                     "Driver inicializado para " + browser + " | " + sessionInfo.toString());
 
+        } catch (SkipException e) {
+            releaseGridSlot();
+            TestLogger.publishSteps(scope);
+            TestScope.close(testResult);
+            throw e;
         } catch (Exception e) {
+            // Sin setUp completo no hay tearDown: la sesión ya creada se cierra aquí
+            WebDriver driver = scope.remove(DRIVER);
+            if (driver != null) {
+                DriverSessionPool.shared().invalidate(driver);
+            }
+            releaseGridSlot();
             logTestStep("Setup Failed", "Error: " + e.getMessage());
+            TestLogger.publishSteps(scope);
+            TestScope.close(testResult);
             throw new RuntimeException("Failed to initialize driver for " + browser, e);
         }
     }
 
     @AfterMethod
     @Step("Limpiando recursos")
-    public void tearDown() {
+    public void tearDown(ITestResult testResult) {
         String browserInfo = "Unknown";
+        TestScope scope = TestScope.open(testResult);
 
         try {
-            WebDriver driver = getDriver();
+            WebDriver driver = scope.get(DRIVER);
             if (driver != null) {
                 browserInfo = getBrowserInfo();
 
                 // ✅ Agregar información de sesión a Allure
-                GridSessionInfo sessionInfo = sessionInfoThreadLocal.get();
+                GridSessionInfo sessionInfo = scope.get(SESSION_INFO);
                 if (sessionInfo != null) {
                     Allure.addAttachment("Session Summary", sessionInfo.getDetailedInfo());
                 }
 
-                logTestStep("Teardown", "Cerrando sesión: " + browserInfo);
-                driver.quit();
+                logTestStep("Teardown", "Devolviendo sesión al pool: " + browserInfo);
+                DriverSessionPool.shared().release(driver);
             }
         } catch (Exception e) {
             logTestStep("Teardown Error", "Error en cleanup: " + e.getMessage());
         } finally {
-            // ✅ CRÍTICO: Limpiar ThreadLocal
-            driverThreadLocal.remove();
-            waitThreadLocal.remove();
-            sessionInfoThreadLocal.remove();
-
+            // ✅ Liberar el slot antes de cerrar el contexto que lo registra
+            releaseGridSlot();
             logTestStep("Cleanup Complete", "Recursos liberados para: " + browserInfo);
+            TestLogger.publishSteps(scope);
+            TestScope.close(testResult);
+
+            TestLogger.clearSession();
         }
     }
 
     @Test(dataProvider = "browsers", priority = 1)
     @Step("Test de búsqueda en Google - {browser}")
     public void testGoogleSearch(String browser) {
-        executeTestWithRetry("Google Search", 2, () -> {
-            navigateToUrl("https://www.google.com", "Google");
-            handleGoogleConsent();
-            performGoogleSearch("Selenium Grid " + browser);
-            verifySearchResultsUpdated();
-        });
+        executeTestWithRetry("Google Search", 2, new CheckpointedSteps()
+                .step("Navegación", () -> navigateToUrl("https://www.google.com", "Google"))
+                .step("Consentimiento", this::handleGoogleConsent, "Navegación")
+                .step("Búsqueda", () -> performGoogleSearch("Selenium Grid " + browser), "Navegación")
+                // Los resultados pueden tardar: se reintenta solo la verificación
+                .verify("Resultados", this::verifySearchResultsUpdated));
     }
 
     @Test(dataProvider = "browsers", priority = 2)
     @Step("Test de Selenium HQ - {browser}")
     public void testSeleniumHQ(String browser) {
-        executeTestWithRetry("Selenium HQ", 2, () -> {
-            navigateToUrl("https://www.selenium.dev/", "Selenium");
-            validatePageTitle("Selenium");
-            verifySeleniumLogo();
-        });
+        executeTestWithRetry("Selenium HQ", 2, new CheckpointedSteps()
+                .step("Navegación", () -> navigateToUrl("https://www.selenium.dev/", "Selenium"))
+                .step("Título", () -> validatePageTitle("Selenium"))
+                .verify("Logo", this::verifySeleniumLogo));
     }
 
     @Test(dataProvider = "browsers", priority = 3)
     @Step("Test de DuckDuckGo - {browser}")
     public void testDuckDuckGo(String browser) {
-        executeTestWithRetry("DuckDuckGo", 2, () -> {
-            navigateToUrl("https://duckduckgo.com", "DuckDuckGo");
-            performDuckDuckGoSearch("Docker " + browser);
-            verifyDuckDuckGoResultsUpdated();
-        });
+        executeTestWithRetry("DuckDuckGo", 2, new CheckpointedSteps()
+                .step("Navegación", () -> navigateToUrl("https://duckduckgo.com", "DuckDuckGo"))
+                .step("Búsqueda", () -> performDuckDuckGoSearch("Docker " + browser), "Navegación")
+                .verify("Resultados", this::verifyDuckDuckGoResultsUpdated));
     }
 
     @Test(dataProvider = "browsers", priority = 4)
@@ -161,7 +250,8 @@ public class SeleniumGridDataProviderTest {
 
             WebElement heading = findElementSafely(
                     new String[]{"h1", "header h1", ".heading"},
-                    "Título principal"
+                    "Título principal",
+                    false
             );
             Assert.assertNotNull(heading, "Debe existir un título principal");
         });
@@ -197,23 +287,97 @@ public class SeleniumGridDataProviderTest {
 
     // ✅ MÉTODOS INTEGRADOS CON UTILIDADES
 
+    private void acquireGridSlot(String browser) throws InterruptedException {
+        if (!GridSlotScheduler.forHub(HUB_URL).acquire(browser, getCapabilities(browser), SLOT_WAIT)) {
+            logTestStep("Grid Slots", "Sin slot disponible para " + browser);
+            throw new SkipException("El Grid no tiene slots disponibles para: " + browser);
+        }
+        TestScope.current().set(SLOT, browser);
+    }
+
+    private void releaseGridSlot() {
+        TestScope scope = TestScope.current();
+        String browser = scope != null ? scope.remove(SLOT) : null;
+        if (browser != null) {
+            GridSlotScheduler.forHub(HUB_URL).release(browser);
+        }
+    }
+
     private void initializeDriver(String browser) throws MalformedURLException {
         logTestStep("Driver Init", "Iniciando " + browser);
 
-        WebDriver driver = new RemoteWebDriver(new URL(HUB_URL), getCapabilities(browser));
+        Capabilities capabilities = getCapabilities(browser);
+        WebDriver driver = DriverSessionPool.shared().lease(browser, capabilities, sessionFactory(browser, capabilities));
 
         driver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT);
-        driver.manage().window().maximize();
 
-        driverThreadLocal.set(driver);
-        waitThreadLocal.set(new WebDriverWait(driver, EXPLICIT_WAIT));
+        TestScope scope = TestScope.current();
+        scope.set(DRIVER, driver);
+        scope.set(WAIT, new WebDriverWait(driver, EXPLICIT_WAIT));
 
         String sessionId = ((RemoteWebDriver) driver).getSessionId().toString();
         Allure.addAttachment("Session Info - " + browser,
                 "Browser: " + browser + "\nSession ID: " + sessionId);
     }
 
-    private Capabilities getCapabilities(String browser) {
+    private static Callable<WebDriver> sessionFactory(String browser, Capabilities capabilities) {
+        return () -> {
+            WebDriver created = CommandLatencyRecorder.instrument(SessionCreationMetrics.forHub(HUB_URL)
+                    .create(browser, () -> GridDriverFactory.shared().create(HUB_URL, capabilities)), browser);
+            created.manage().window().maximize();
+            return created;
+        };
+    }
+
+    /**
+     * ✅ Crea en segundo plano la sesión del siguiente test de este navegador mientras corre el actual.
+     * Solo si el Grid tiene un slot libre además de los que ocupan los tests en curso,
+     * para no quitar capacidad a otros tests.
+     */
+    private void prefetchNextSession(String browser, int pending) {
+        if (pending <= 0) {
+            return;
+        }
+        if (!GridSlotScheduler.forHub(HUB_URL).hasSpareSlot(browser)) {
+            return;
+        }
+
+        Capabilities capabilities = getCapabilities(browser);
+        if (DriverSessionPool.shared().prefetch(browser, capabilities, sessionFactory(browser, capabilities), pending)) {
+            logTestStep("Session Prefetch", "Precargando sesión " + browser + " para los " + pending + " tests pendientes");
+        }
+    }
+
+    /**
+     * ✅ Tests data-driven de esta clase que aún no han empezado para el navegador en este &lt;test&gt;
+     * (solo los del shard actual: DurationShardingListener deja fuera los de otros shards)
+     */
+    private int pendingInvocations(ITestContext context, int started) {
+        int total = 0;
+        for (ITestNGMethod method : DurationShardingListener.scheduledMethods(context)) {
+            if (method.getRealClass() == getClass() && method.isDataDriven()) {
+                total++;
+            }
+        }
+        return total - started;
+    }
+
+    /**
+     * Contador por &lt;test&gt;: otra &lt;suite&gt; o &lt;test&gt; en la misma JVM empieza de cero
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, AtomicInteger> startedInvocations(ITestContext context) {
+        synchronized (context) {
+            Object started = context.getAttribute(STARTED_INVOCATIONS_ATTRIBUTE);
+            if (started == null) {
+                started = new ConcurrentHashMap<String, AtomicInteger>();
+                context.setAttribute(STARTED_INVOCATIONS_ATTRIBUTE, started);
+            }
+            return (Map<String, AtomicInteger>) started;
+        }
+    }
+
+    static Capabilities getCapabilities(String browser) {
         switch (browser.toLowerCase()) {
             case "chrome":
                 ChromeOptions chrome = new ChromeOptions();
@@ -254,17 +418,19 @@ public class SeleniumGridDataProviderTest {
     }
 
     private WebDriver getDriver() {
-        WebDriver driver = driverThreadLocal.get();
+        TestScope scope = TestScope.current();
+        WebDriver driver = scope != null ? scope.get(DRIVER) : null;
         if (driver == null) {
-            throw new IllegalStateException("Driver not initialized for current thread");
+            throw new IllegalStateException("Driver not initialized for current test");
         }
         return driver;
     }
 
     private WebDriverWait getWait() {
-        WebDriverWait wait = waitThreadLocal.get();
+        TestScope scope = TestScope.current();
+        WebDriverWait wait = scope != null ? scope.get(WAIT) : null;
         if (wait == null) {
-            throw new IllegalStateException("Wait not initialized for current thread");
+            throw new IllegalStateException("Wait not initialized for current test");
         }
         return wait;
     }
@@ -272,47 +438,65 @@ public class SeleniumGridDataProviderTest {
     // ✅ MÉTODO CON RETRY Y SCREENSHOTS AUTOMÁTICOS
     @Step("Ejecutando test con retry: {testName}")
     private void executeTestWithRetry(String testName, int maxRetries, Runnable testLogic) {
-        Exception lastException = null;
-
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                logTestStep("Test Start", testName + " en " + getBrowserName() + " (intento " + attempt + ")");
-
-                testLogic.run();
-
-                logTestStep("Test Success", testName + " completado exitosamente");
-                Allure.step(testName + " exitoso en " + getBrowserName());
-                return; // Éxito, salir del loop
+        executeTestWithRetry(testName, maxRetries, new CheckpointedSteps().step(testName, testLogic));
+    }
 
-            } catch (Exception e) {
-                lastException = e;
+    /**
+     * ✅ Ejecuta los pasos con checkpoints: tras un fallo solo se repite el paso fallido
+     * (y sus dependencias declaradas), no el test completo
+     */
+    private void executeTestWithRetry(String testName, int maxRetries, CheckpointedSteps steps) {
+        logTestStep("Test Start", testName + " en " + getBrowserName());
 
+        try {
+            steps.run((step, failure, attempt, stepsToRerun) -> {
                 // ✅ Screenshot automático en fallo
-                takeScreenshot(getDriver(), testName + "_failed_attempt_" + attempt);
+                takeScreenshot(getDriver(), testName + "_" + step + "_failed_attempt_" + attempt);
 
-                logTestStep("Test Failed", testName + " falló (intento " + attempt + "): " + e.getMessage());
+                logTestStep("Test Failed", testName + " falló en el paso '" + step + "' (intento " + attempt + "): "
+                        + failure.getMessage());
 
-                if (attempt < maxRetries) {
-                    logTestStep("Retry", "Reintentando en 2 segundos...");
-                    try {
-                        Thread.sleep(2000); // Pausa antes del retry
+                // ✅ Con el circuit breaker abierto no tiene sentido reintentar contra el Hub
+                GridHealthMonitor health = GridHealthMonitor.forHub(HUB_URL);
+                if (health.isCircuitOpen()) {
+                    logTestStep("Grid Down", health.describe());
+                    throw new SkipException(health.describe());
+                }
 
-                        // ✅ Limpiar estado antes del retry
-                        cleanBrowserState(getDriver());
+                // ✅ Solo fallos transitorios (o aserciones de pasos de verificación)
+                // y mientras quede presupuesto global de reintentos
+                if (!RetryEngine.shared().shouldRetry(testName + " / " + step, failure, attempt, maxRetries,
+                        steps.isVerification(step))) {
+                    logTestStep("Test Exhausted", "Sin más intentos para: " + testName
+                            + " (" + RetryEngine.classify(failure) + ")");
+                    return false;
+                }
 
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                } else {
-                    logTestStep("Test Exhausted", "Todos los intentos agotados para: " + testName);
+                Duration delay = RetryEngine.shared().backoff(attempt, RETRY_DELAY);
+                logTestStep("Retry", "Reintentando pasos " + stepsToRerun + " en " + delay.toMillis() + " ms...");
+                try {
+                    Thread.sleep(delay.toMillis()); // Pausa antes del retry
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
                 }
-            }
+
+                // ✅ Limpiar estado solo si se vuelve a empezar desde el primer paso
+                // (los pasos completados que dependen de él, como el consentimiento, se repiten)
+                if (stepsToRerun.contains(steps.firstStep())) {
+                    cleanBrowserState(getDriver());
+                }
+                return true;
+            });
+        } catch (SkipException e) {
+            throw e;
+        } catch (RuntimeException | AssertionError e) {
+            Allure.addAttachment("Final Error Details", e.toString());
+            throw new AssertionError("Test failed after " + steps.getAttempts() + " attempts: " + testName, e);
         }
 
-        // Si llegamos aquí, todos los intentos fallaron
-        Allure.addAttachment("Final Error Details", lastException.toString());
-        throw new AssertionError("Test failed after " + maxRetries + " attempts: " + testName, lastException);
+        logTestStep("Test Success", testName + " completado exitosamente");
+        Allure.step(testName + " exitoso en " + getBrowserName());
     }
 
     @Step("Navegando a {url}")
@@ -331,23 +515,15 @@ public class SeleniumGridDataProviderTest {
     }
 
     private void handleGoogleConsent() {
-        String[] cookieSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findAnyVisible(getDriver(), CONSENT_WAIT,
                 "#L2AGLb", "button[id='L2AGLb']", ".QS5gu",
-                "[aria-label*='Accept']", "[aria-label*='Acepto']",
-                "button:contains('Accept')", "button:contains('Acepto')"
-        };
+                "[aria-label*='Accept']", "[aria-label*='Acepto']"
+        );
 
-        for (String selector : cookieSelectors) {
-            try {
-                WebElement button = getWait().until(
-                        ExpectedConditions.elementToBeClickable(By.cssSelector(selector))
-                );
-                if (isElementVisibleAndClickable(getDriver(), button)) {
-                    button.click();
-                    logTestStep("Cookies", "Cookies aceptadas con selector: " + selector);
-                    return;
-                }
-            } catch (Exception ignored) {}
+        if (match != null) {
+            match.getElement().click();
+            logTestStep("Cookies", "Cookies aceptadas con selector: " + match.getSelector());
+            return;
         }
         logTestStep("Cookies", "No se encontró diálogo de cookies");
     }
@@ -356,7 +532,8 @@ public class SeleniumGridDataProviderTest {
     private void performGoogleSearch(String searchTerm) {
         WebElement searchBox = findElementSafely(
                 new String[]{"input[name='q']", "textarea[name='q']", "#APjFqb", ".gLFyf"},
-                "Campo de búsqueda de Google"
+                "Campo de búsqueda de Google",
+                true
         );
 
         if (searchBox != null) {
@@ -383,23 +560,7 @@ public class SeleniumGridDataProviderTest {
 
         wait.until(ExpectedConditions.jsReturnsValue("return document.readyState === 'complete'"));
 
-        boolean resultsFound = false;
-
-        // Método con retry integrado
-        resultsFound = retryOperation(() -> {
-            for (String selector : updatedGoogleSelectors) {
-                try {
-                    List<WebElement> elements = driver.findElements(By.cssSelector(selector));
-                    if (!elements.isEmpty()) {
-                        logTestStep("Results Found", "Selector exitoso: " + selector + " (" + elements.size() + " elementos)");
-                        return true;
-                    }
-                } catch (Exception e) {
-                    // Continuar con el siguiente selector
-                }
-            }
-            return false;
-        }, 3, Duration.ofSeconds(2));
+        boolean resultsFound = waitForAnyResult("Results Found", updatedGoogleSelectors);
 
         if (!resultsFound) {
             // Método alternativo: verificar por URL
@@ -421,7 +582,8 @@ public class SeleniumGridDataProviderTest {
                         "#search_form_input_homepage", "#searchbox_input",
                         "input[name='q']", "input[type='search']"
                 },
-                "Campo de búsqueda de DuckDuckGo"
+                "Campo de búsqueda de DuckDuckGo",
+                true
         );
 
         if (searchBox != null) {
@@ -442,20 +604,7 @@ public class SeleniumGridDataProviderTest {
                 "a[href*='uddg.com']", ".web-result", "[role='listitem']"
         };
 
-        boolean resultsFound = retryOperation(() -> {
-            for (String selector : updatedDuckDuckGoSelectors) {
-                try {
-                    List<WebElement> elements = getDriver().findElements(By.cssSelector(selector));
-                    if (!elements.isEmpty()) {
-                        logTestStep("DuckDuckGo Results", "Selector exitoso: " + selector + " (" + elements.size() + " elementos)");
-                        return true;
-                    }
-                } catch (Exception e) {
-                    // Continuar
-                }
-            }
-            return false;
-        }, 3, Duration.ofSeconds(2));
+        boolean resultsFound = waitForAnyResult("DuckDuckGo Results", updatedDuckDuckGoSelectors);
 
         Assert.assertTrue(resultsFound, "No se pudieron detectar resultados de búsqueda en DuckDuckGo");
         logTestStep("DuckDuckGo Verified", "Resultados verificados en DuckDuckGo");
@@ -476,28 +625,26 @@ public class SeleniumGridDataProviderTest {
                         "img[alt*='Selenium']", "img[src*='selenium']",
                         "header img", ".navbar-brand img", "[class*='logo']"
                 },
-                "Logo de Selenium"
+                "Logo de Selenium",
+                false
         );
 
         Assert.assertNotNull(logo, "El logo de Selenium debe estar presente");
         logTestStep("Logo Verified", "Logo de Selenium encontrado");
     }
 
-    private WebElement findElementSafely(String[] selectors, String elementDescription) {
-        WebDriverWait wait = getWait();
-
-        for (String selector : selectors) {
-            try {
-                WebElement element = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (element != null && isElementVisibleAndClickable(getDriver(), element)) {
-                    logTestStep("Element Found", elementDescription + " (selector: " + selector + ")");
-                    return element;
-                }
-            } catch (TimeoutException | NoSuchElementException | StaleElementReferenceException e) {
-                logTestStep("Selector Failed", selector + " - " + e.getClass().getSimpleName());
-            }
+    /**
+     * equivalentSelectors: todos los selectores apuntan al mismo elemento, así que se puede
+     * probar primero el ganador histórico; si no, manda el orden de la lista
+     */
+    private WebElement findElementSafely(String[] selectors, String elementDescription, boolean equivalentSelectors) {
+        MultiSelectorLocator.Match match = equivalentSelectors
+                ? MultiSelectorLocator.findAnyVisible(getDriver(), EXPLICIT_WAIT, selectors)
+                : MultiSelectorLocator.findFirstVisible(getDriver(), EXPLICIT_WAIT, selectors);
+
+        if (match != null) {
+            logTestStep("Element Found", elementDescription + " (" + match + ")");
+            return match.getElement();
         }
 
         String error = elementDescription + " no encontrado con ningún selector";
@@ -510,17 +657,16 @@ public class SeleniumGridDataProviderTest {
     // ✅ UTILIDADES INTEGRADAS
 
     /**
-     * ✅ Toma screenshot y lo adjunta a Allure
+     * ✅ Toma screenshot y lo adjunta a Allure (escritura a disco en segundo plano)
      */
     private void takeScreenshot(WebDriver driver, String stepName) {
         try {
             if (driver instanceof TakesScreenshot) {
-                byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                String screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
                 String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
                 String attachmentName = String.format("%s_%s", stepName, timestamp);
 
-                Allure.addAttachment(attachmentName, "image/png",
-                        new ByteArrayInputStream(screenshot), "png");
+                ArtifactPipeline.shared().attachBase64Png(attachmentName, screenshot);
 
                 logTestStep("Screenshot", "Capturado: " + attachmentName);
             }
@@ -529,28 +675,6 @@ public class SeleniumGridDataProviderTest {
         }
     }
 
-    /**
-     * ✅ Verificar si un elemento está realmente visible y clickeable
-     */
-    private boolean isElementVisibleAndClickable(WebDriver driver, WebElement element) {
-        try {
-            if (!element.isDisplayed() || !element.isEnabled()) return false;
-
-            String script =
-                    "var element = arguments[0]; " +
-                            "var style = window.getComputedStyle(element); " +
-                            "return style.display !== 'none' && " +
-                            "       style.visibility !== 'hidden' && " +
-                            "       style.opacity !== '0' && " +
-                            "       element.offsetWidth > 0 && " +
-                            "       element.offsetHeight > 0;";
-
-            return (Boolean) ((JavascriptExecutor) driver).executeScript(script, element);
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     /**
      * ✅ Scroll inteligente a elemento
      */
@@ -567,32 +691,6 @@ public class SeleniumGridDataProviderTest {
         }
     }
 
-    /**
-     * ✅ Verificar conectividad con el Grid
-     */
-    private boolean isGridAvailable(String hubUrl) {
-        try {
-            java.net.URL url = new java.net.URL(hubUrl + "/status");
-            java.net.HttpURLConnection connection =
-                    (java.net.HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-
-            int responseCode = connection.getResponseCode();
-            boolean available = responseCode == 200;
-
-            logTestStep("Grid Check", available ?
-                    "Grid disponible en: " + hubUrl :
-                    "Grid no disponible: " + responseCode);
-
-            return available;
-        } catch (Exception e) {
-            logTestStep("Grid Check Error", "Error verificando Grid: " + e.getMessage());
-            return false;
-        }
-    }
-
     /**
      * ✅ Limpieza de cookies y storage
      */
@@ -612,33 +710,18 @@ public class SeleniumGridDataProviderTest {
     }
 
     /**
-     * ✅ Retry con exponential backoff
+     * ✅ Espera a que algún selector de resultados aparezca: una sola espera con timeout
+     * (MultiSelectorLocator), sin gastar el presupuesto de reintentos del RetryEngine.
+     * Devuelve false si no aparece ninguno antes de RESULTS_WAIT.
      */
-    private <T> T retryOperation(Supplier<T> operation, int maxAttempts, Duration initialDelay) {
-        Exception lastException = null;
-        Duration currentDelay = initialDelay;
-
-        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            try {
-                return operation.get();
-            } catch (Exception e) {
-                lastException = e;
-                logTestStep("Retry", "Intento " + attempt + " falló: " + e.getMessage());
-
-                if (attempt < maxAttempts) {
-                    try {
-                        Thread.sleep(currentDelay.toMillis());
-                        currentDelay = currentDelay.multipliedBy(2);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
+    private boolean waitForAnyResult(String stepName, String[] selectors) {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findFirstPresent(getDriver(), RESULTS_WAIT, selectors);
+        if (match == null) {
+            logTestStep(stepName, "Ningún selector de resultados encontrado en " + RESULTS_WAIT.getSeconds() + "s");
+            return false;
         }
-
-        throw new RuntimeException("Operación falló después de " + maxAttempts + " intentos",
-                lastException);
+        logTestStep(stepName, "Selector exitoso: " + match);
+        return true;
     }
 
     /**
@@ -661,16 +744,10 @@ public class SeleniumGridDataProviderTest {
     }
 
     /**
-     * ✅ Logger personalizado para tests
+     * ✅ Logger personalizado para tests (asíncrono vía TestLogger)
      */
     private void logTestStep(String stepName, String details) {
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        String threadName = Thread.currentThread().getName();
-
-        System.out.println(String.format("[%s] [%s] 🔹 %s: %s",
-                timestamp, threadName, stepName, details));
-
-        Allure.step(stepName + ": " + details);
+        TestLogger.step(stepName, () -> details);
     }
 
     private String getBrowserInfo() {
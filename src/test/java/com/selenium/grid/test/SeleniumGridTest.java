@@ -1,8 +1,14 @@
 package com.selenium.grid.test;
 
+import com.selenium.grid.test.utils.CommandLatencyRecorder;
+import com.selenium.grid.test.utils.DriverSessionPool;
+import com.selenium.grid.test.utils.GridDriverFactory;
+import com.selenium.grid.test.utils.MultiSelectorLocator;
+import com.selenium.grid.test.utils.SessionCreationMetrics;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -15,12 +21,14 @@ import org.testng.Assert;
 import org.testng.annotations.*;
 
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.time.Duration;
 import java.util.List;
 
 public class SeleniumGridTest {
 
+    private static final Duration LOCATOR_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration CONSENT_TIMEOUT = Duration.ofSeconds(5);
+
     private WebDriver driver;
     private WebDriverWait wait;
     private String hubUrl = "http://localhost:4444/wd/hub";
@@ -30,6 +38,7 @@ public class SeleniumGridTest {
     public void setUp(@Optional("chrome") String browser) throws MalformedURLException {
         System.out.println("Setting up test for browser: " + browser);
 
+        Capabilities capabilities;
         switch (browser.toLowerCase()) {
             case "chrome":
                 ChromeOptions chromeOptions = new ChromeOptions();
@@ -39,14 +48,14 @@ public class SeleniumGridTest {
                 chromeOptions.addArguments("--window-size=1920,1080");
                 chromeOptions.addArguments("--disable-blink-features=AutomationControlled");
                 chromeOptions.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-                driver = new RemoteWebDriver(new URL(hubUrl), chromeOptions);
+                capabilities = chromeOptions;
                 break;
 
             case "firefox":
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
                 firefoxOptions.addArguments("--width=1920");
                 firefoxOptions.addArguments("--height=1080");
-                driver = new RemoteWebDriver(new URL(hubUrl), firefoxOptions);
+                capabilities = firefoxOptions;
                 break;
 
             case "edge":
@@ -57,15 +66,20 @@ public class SeleniumGridTest {
                 edgeOptions.addArguments("--window-size=1920,1080");
                 edgeOptions.addArguments("--disable-blink-features=AutomationControlled");
                 edgeOptions.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-                driver = new RemoteWebDriver(new URL(hubUrl), edgeOptions);
+                capabilities = edgeOptions;
                 break;
 
             default:
                 throw new IllegalArgumentException("Browser not supported: " + browser + ". Supported: chrome, firefox, edge");
         }
 
+        driver = DriverSessionPool.shared().lease(browser, capabilities, () -> {
+            WebDriver created = CommandLatencyRecorder.instrument(SessionCreationMetrics.forHub(hubUrl)
+                    .create(browser, () -> GridDriverFactory.shared().create(hubUrl, capabilities)), browser);
+            created.manage().window().maximize();
+            return created;
+        });
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
-        driver.manage().window().maximize();
         wait = new WebDriverWait(driver, Duration.ofSeconds(30));
 
         System.out.println("Test running on: " +
@@ -163,35 +177,23 @@ public class SeleniumGridTest {
     // Métodos auxiliares para manejar múltiples selectores
 
     private void handleGoogleCookies() {
-        String[] cookieSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findAnyVisible(driver, CONSENT_TIMEOUT,
                 "#L2AGLb", // Selector original
                 "button[id='L2AGLb']",
                 "div[role='button'][jsname='b3VHJd']",
-                "button:contains('Acepto')",
-                "button:contains('Accept')",
-                "[data-ved]:contains('Accept')",
                 ".QS5gu"
-        };
-
-        for (String selector : cookieSelectors) {
-            try {
-                WebElement acceptButton = wait.until(
-                        ExpectedConditions.elementToBeClickable(By.cssSelector(selector))
-                );
-                if (acceptButton.isDisplayed()) {
-                    acceptButton.click();
-                    System.out.println("✓ Cookies aceptadas con selector: " + selector);
-                    return;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        );
+
+        if (match != null) {
+            match.getElement().click();
+            System.out.println("✓ Cookies aceptadas con selector: " + match.getSelector());
+            return;
         }
         System.out.println("ℹ️ No se encontró diálogo de cookies");
     }
 
     private WebElement findSearchInput() {
-        String[] searchSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findAnyVisible(driver, LOCATOR_TIMEOUT,
                 "input[name='q']", // Selector más confiable
                 "textarea[name='q']",
                 "#APjFqb",
@@ -199,26 +201,17 @@ public class SeleniumGridTest {
                 "input[type='search']",
                 "input[title*='Buscar']",
                 "input[title*='Search']"
-        };
-
-        for (String selector : searchSelectors) {
-            try {
-                WebElement element = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (element.isDisplayed()) {
-                    System.out.println("✓ Input de búsqueda encontrado con: " + selector);
-                    return element;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        );
+
+        if (match != null) {
+            System.out.println("✓ Input de búsqueda encontrado con: " + match.getSelector());
+            return match.getElement();
         }
         return null;
     }
 
     private WebElement verifyGoogleSearchResults() {
-        String[] resultSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findFirstVisible(driver, LOCATOR_TIMEOUT,
                 "#search", // Selector original
                 "#rso",
                 "#main",
@@ -227,20 +220,11 @@ public class SeleniumGridTest {
                 "#rcnt",
                 "#center_col",
                 ".hlcw0c"
-        };
-
-        for (String selector : resultSelectors) {
-            try {
-                WebElement results = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (results.isDisplayed()) {
-                    System.out.println("✓ Resultados encontrados con: " + selector);
-                    return results;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        );
+
+        if (match != null) {
+            System.out.println("✓ Resultados encontrados con: " + match.getSelector());
+            return match.getElement();
         }
 
         // Verificación alternativa por URL
@@ -255,7 +239,7 @@ public class SeleniumGridTest {
     }
 
     private WebElement findSeleniumLogo() {
-        String[] logoSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findFirstVisible(driver, LOCATOR_TIMEOUT,
                 "img[alt='Selenium']", // Selector original
                 "img[alt*='Selenium']",
                 "img[src*='selenium']",
@@ -264,20 +248,11 @@ public class SeleniumGridTest {
                 "svg[class*='logo']",
                 ".navbar-brand img",
                 "header img"
-        };
-
-        for (String selector : logoSelectors) {
-            try {
-                WebElement logo = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (logo.isDisplayed()) {
-                    System.out.println("✓ Logo encontrado con: " + selector);
-                    return logo;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        );
+
+        if (match != null) {
+            System.out.println("✓ Logo encontrado con: " + match.getSelector());
+            return match.getElement();
         }
 
         // Verificación alternativa: buscar cualquier imagen en el header
@@ -295,7 +270,7 @@ public class SeleniumGridTest {
     }
 
     private WebElement findDuckDuckGoSearchInput() {
-        String[] inputSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findAnyVisible(driver, LOCATOR_TIMEOUT,
                 "#search_form_input_homepage", // Selector original
                 "#searchbox_input",
                 "input[name='q']",
@@ -304,50 +279,34 @@ public class SeleniumGridTest {
                 "#search_form_input",
                 "input[placeholder*='Search']",
                 "input[placeholder*='search']"
-        };
-
-        for (String selector : inputSelectors) {
-            try {
-                WebElement input = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (input.isDisplayed()) {
-                    System.out.println("✓ Input de DuckDuckGo encontrado con: " + selector);
-                    return input;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        );
+
+        if (match != null) {
+            System.out.println("✓ Input de DuckDuckGo encontrado con: " + match.getSelector());
+            return match.getElement();
         }
         return null;
     }
 
     private WebElement findDuckDuckGoSearchButton() {
-        String[] buttonSelectors = {
+        // Sin espera: el botón es opcional y existe junto al input ya encontrado
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findFirstVisible(driver, Duration.ZERO,
                 "#search_button_homepage", // Selector original
                 "input[type='submit']",
                 "button[type='submit']",
                 ".search__button",
-                "#search_button",
-                "button:contains('Search')"
-        };
-
-        for (String selector : buttonSelectors) {
-            try {
-                WebElement button = driver.findElement(By.cssSelector(selector));
-                if (button.isDisplayed()) {
-                    System.out.println("✓ Botón de búsqueda encontrado con: " + selector);
-                    return button;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+                "#search_button"
+        );
+
+        if (match != null) {
+            System.out.println("✓ Botón de búsqueda encontrado con: " + match.getSelector());
+            return match.getElement();
         }
         return null;
     }
 
     private WebElement verifyDuckDuckGoResults() {
-        String[] resultSelectors = {
+        MultiSelectorLocator.Match match = MultiSelectorLocator.findFirstVisible(driver, LOCATOR_TIMEOUT,
                 "#links", // Selector original
                 "#results",
                 ".results",
@@ -355,20 +314,11 @@ public class SeleniumGridTest {
                 ".web-result",
                 ".react-results--main",
                 "#web_content_wrapper"
-        };
-
-        for (String selector : resultSelectors) {
-            try {
-                WebElement results = wait.until(
-                        ExpectedConditions.presenceOfElementLocated(By.cssSelector(selector))
-                );
-                if (results.isDisplayed()) {
-                    System.out.println("✓ Resultados de DuckDuckGo encontrados con: " + selector);
-                    return results;
-                }
-            } catch (Exception e) {
-                // Continuar con el siguiente selector
-            }
+        );
+
+        if (match != null) {
+            System.out.println("✓ Resultados de DuckDuckGo encontrados con: " + match.getSelector());
+            return match.getElement();
         }
 
         // Verificación alternativa por URL
@@ -384,8 +334,9 @@ public class SeleniumGridTest {
     @AfterMethod
     public void tearDown() {
         if (driver != null) {
-            System.out.println("Closing browser session...");
-            driver.quit();
+            System.out.println("Returning browser session to pool...");
+            DriverSessionPool.shared().release(driver);
+            driver = null;
         }
     }
 
@@ -0,0 +1,196 @@
+package com.selenium.grid.test.utils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.util.PropertiesUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+///**
+// * ✅ PIPELINE ASÍNCRONO DE ARTEFACTOS (SCREENSHOTS / ADJUNTOS ALLURE)
+// *
+// * El hilo del test solo registra el adjunto en Allure; la escritura a disco va en segundo plano:
+// * - Cola acotada (grid.artifacts.queueCapacity) con escritores dedicados
+// * - Escritura con FileChannel en streaming (base64 decodificado por bloques)
+// * - Contrapresión: con la cola llena, el hilo del test escribe él mismo
+// * - Procesado opcional de screenshots (ScreenshotProcessor) en los hilos escritores
+// * - flush() determinista al final de la suite + métricas
+// */
+public class ArtifactPipeline {
+
+    private static final int QUEUE_CAPACITY = Integer.getInteger("grid.artifacts.queueCapacity", 64);
+    private static final int WRITER_THREADS = Integer.getInteger("grid.artifacts.writerThreads", 2);
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final ArtifactPipeline SHARED = new ArtifactPipeline(resolveResultsDirectory());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.flush(Duration.ofSeconds(30)),
+                "artifact-pipeline-flush"));
+    }
+
+    private final Path resultsDirectory;
+    private final ThreadPoolExecutor writers;
+    private final Object flushMonitor = new Object();
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong backpressureEvents = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    public ArtifactPipeline(Path resultsDirectory) {
+        this.resultsDirectory = resultsDirectory;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(WRITER_THREADS, WRITER_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "artifact-writer-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    // Cola llena: el hilo que envía escribe directamente (contrapresión)
+                    backpressureEvents.incrementAndGet();
+                    task.run();
+                });
+        this.writers.allowCoreThreadTimeOut(true);
+    }
+
+    public static ArtifactPipeline shared() {
+        return SHARED;
+    }
+
+    /**
+     * ✅ Registra un screenshot (base64 tal como lo entrega WebDriver) y lo escribe en segundo plano
+     */
+    public void attachBase64Png(String name, String base64Png) {
+        if (ScreenshotProcessor.isEnabled()) {
+            ScreenshotProcessor processor = ScreenshotProcessor.shared();
+            String duplicateOf = processor.findDuplicate(name, base64Png);
+            if (duplicateOf != null) {
+                Allure.addAttachment(name, "Screenshot idéntico a: " + duplicateOf);
+                return;
+            }
+            submit(name, processor.getMimeType(), processor.getExtension(), () -> new ByteArrayInputStream(
+                    processor.process(Base64.getDecoder().decode(base64Png))));
+            return;
+        }
+
+        submit(name, "image/png", "png", () -> Base64.getDecoder().wrap(
+                new ByteArrayInputStream(base64Png.getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    /**
+     * ✅ Registra un adjunto binario y lo escribe en segundo plano
+     */
+    public void attach(String name, String type, String extension, byte[] content) {
+        submit(name, type, extension, () -> new ByteArrayInputStream(content));
+    }
+
+    /**
+     * ✅ Espera a que todas las escrituras pendientes terminen
+     */
+    public boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (flushMonitor) {
+            while (pending.get() > 0) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    System.err.println("⚠️ Flush de artefactos incompleto: " + pending.get() + " pendientes");
+                    return false;
+                }
+                try {
+                    flushMonitor.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ✅ Métricas del pipeline (para logs / Allure)
+     */
+    public String getMetrics() {
+        return String.format(
+                "Artefactos enviados: %d | escritos: %d | fallidos: %d | bytes: %d | " +
+                        "pendientes: %d | cola máx: %d/%d | contrapresión: %d",
+                submitted.get(), written.get(), failed.get(), bytesWritten.get(),
+                pending.get(), maxQueueDepth.get(), QUEUE_CAPACITY, backpressureEvents.get());
+    }
+
+    private void submit(String name, String type, String extension, ContentSource content) {
+        // prepareAttachment enlaza el adjunto al step/test actual: debe hacerse en el hilo del test
+        String source = Allure.getLifecycle().prepareAttachment(name, type, extension);
+        Path target = resultsDirectory.resolve(source);
+
+        pending.incrementAndGet();
+        submitted.incrementAndGet();
+        writers.execute(() -> write(target, content));
+        maxQueueDepth.accumulateAndGet(writers.getQueue().size(), Math::max);
+    }
+
+    private void write(Path target, ContentSource content) {
+        try {
+            Files.createDirectories(target.getParent());
+            try (InputStream input = content.open();
+                 ReadableByteChannel in = Channels.newChannel(input);
+                 FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+                long total = 0;
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        total += out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                bytesWritten.addAndGet(total);
+            }
+            written.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("❌ Error escribiendo artefacto " + target.getFileName() + ": " + e.getMessage());
+        } finally {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (flushMonitor) {
+                    flushMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static Path resolveResultsDirectory() {
+        return Paths.get(PropertiesUtils.loadAllureProperties()
+                .getProperty("allure.results.directory", "allure-results"));
+    }
+
+    @FunctionalInterface
+    private interface ContentSource {
+        InputStream open() throws IOException;
+    }
+}
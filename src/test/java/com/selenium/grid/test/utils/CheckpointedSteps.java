@@ -0,0 +1,184 @@
+package com.selenium.grid.test.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+///**
+// * ✅ PASOS DE TEST CON CHECKPOINTS
+// *
+// * Divide un test en pasos con nombre para reintentar solo lo que falla:
+// * - Cada paso completado queda como checkpoint y no se repite
+// * - Si un paso falla, se reintenta ese paso más sus dependencias declaradas (transitivas)
+// *   y los pasos ya completados que dependen de lo que se repite; después se continúa
+// *   con los pasos pendientes
+// * - verify(): pasos de verificación cuyas aserciones pueden reintentarse (contenido que tarda)
+// * - La decisión de reintentar (y la espera) la toma el FailureHandler del test
+// *
+// * Ejemplo:
+// *   new CheckpointedSteps()
+// *       .step("Navegación", () -> navigateToUrl(url, "Google"))
+// *       .step("Búsqueda", () -> search(term), "Navegación")   // reintentar búsqueda exige volver a navegar
+// *       .verify("Resultados", this::verifyResults)            // se reintenta solo la verificación
+// */
+public class CheckpointedSteps {
+
+    private final List<Step> steps = new ArrayList<>();
+    private int attempts;
+
+    /**
+     * ✅ Decide qué hacer ante un paso fallido: true para reintentar los pasos indicados
+     */
+    @FunctionalInterface
+    public interface FailureHandler {
+        boolean onFailure(String step, Throwable failure, int attempt, Set<String> stepsToRerun);
+    }
+
+    /**
+     * ✅ Añade un paso; las dependencias deben declararse antes
+     */
+    public CheckpointedSteps step(String name, Runnable action, String... dependsOn) {
+        return add(name, action, false, dependsOn);
+    }
+
+    /**
+     * ✅ Añade un paso de verificación: sus AssertionError pueden reintentarse (ver isVerification)
+     */
+    public CheckpointedSteps verify(String name, Runnable action, String... dependsOn) {
+        return add(name, action, true, dependsOn);
+    }
+
+    /**
+     * ✅ True si el paso se declaró con verify()
+     */
+    public boolean isVerification(String name) {
+        Step step = find(name);
+        return step != null && step.verification;
+    }
+
+    private CheckpointedSteps add(String name, Runnable action, boolean verification, String... dependsOn) {
+        for (String dependency : dependsOn) {
+            if (find(dependency) == null) {
+                throw new IllegalArgumentException("El paso '" + name + "' depende de '" + dependency
+                        + "', que no está declarado antes");
+            }
+        }
+        if (find(name) != null) {
+            throw new IllegalArgumentException("Paso duplicado: " + name);
+        }
+        steps.add(new Step(name, action, verification, Arrays.asList(dependsOn)));
+        return this;
+    }
+
+    public String firstStep() {
+        return steps.isEmpty() ? null : steps.get(0).name;
+    }
+
+    /**
+     * ✅ Intentos consumidos en la última ejecución (1 = sin fallos)
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * ✅ Ejecuta los pasos en orden. Si el handler no reintenta, se relanza el fallo del paso.
+     */
+    public void run(FailureHandler handler) {
+        Set<String> completed = new HashSet<>();
+        attempts = 1;
+        int index = 0;
+
+        while (index < steps.size()) {
+            Step step = steps.get(index);
+            if (completed.contains(step.name)) {
+                index++;
+                continue;
+            }
+
+            try {
+                step.action.run();
+                completed.add(step.name);
+                TestLogger.debug("Checkpoint", () -> "Paso completado: " + step.name);
+                index++;
+            } catch (RuntimeException | AssertionError failure) {
+                Set<String> rerun = withDependencies(step);
+                if (!handler.onFailure(step.name, failure, attempts, rerun)) {
+                    throw failure;
+                }
+                attempts++;
+                completed.removeAll(rerun);
+                index = firstIndexOf(rerun);
+            }
+        }
+    }
+
+    private Set<String> withDependencies(Step step) {
+        Set<String> closure = new LinkedHashSet<>();
+        collect(step, closure);
+        // Los pasos ya completados que dependen de algo que se repite también se repiten
+        // (p.ej. volver a navegar exige volver a aceptar el consentimiento)
+        int failedIndex = steps.indexOf(step);
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (Step candidate : steps.subList(0, failedIndex)) {
+                if (!closure.contains(candidate.name)
+                        && candidate.dependsOn.stream().anyMatch(closure::contains)) {
+                    collect(candidate, closure);
+                    added = true;
+                }
+            }
+        }
+        // Orden de declaración para los mensajes
+        Set<String> ordered = new LinkedHashSet<>();
+        for (Step candidate : steps) {
+            if (closure.contains(candidate.name)) {
+                ordered.add(candidate.name);
+            }
+        }
+        return ordered;
+    }
+
+    private void collect(Step step, Set<String> closure) {
+        if (!closure.add(step.name)) return;
+        for (String dependency : step.dependsOn) {
+            collect(find(dependency), closure);
+        }
+    }
+
+    private int firstIndexOf(Set<String> names) {
+        for (int i = 0; i < steps.size(); i++) {
+            if (names.contains(steps.get(i).name)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private Step find(String name) {
+        for (Step step : steps) {
+            if (step.name.equals(name)) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    private static class Step {
+        private final String name;
+        private final Runnable action;
+        private final boolean verification;
+        private final List<String> dependsOn;
+
+        private Step(String name, Runnable action, boolean verification, List<String> dependsOn) {
+            this.name = name;
+            this.action = action;
+            this.verification = verification;
+            this.dependsOn = dependsOn;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+///**
+// * ✅ TESTS UNITARIOS: PASOS A REPETIR TRAS UN FALLO (DEPENDENCIAS TRANSITIVAS Y DEPENDIENTES)
+// */
+public class CheckpointedStepsTest {
+
+    @Test
+    public void failedStepRerunsItsTransitiveDependencies() {
+        Assert.assertEquals(rerunAfterFailureOf("D"), Arrays.asList("A", "B", "C", "D"));
+    }
+
+    @Test
+    public void completedStepsDependingOnARerunStepAreRepeated() {
+        // C depende de A; B también depende de A y ya estaba completado
+        Assert.assertEquals(rerunAfterFailureOf("C"), Arrays.asList("A", "B", "C"));
+    }
+
+    @Test
+    public void independentStepRerunsAlone() {
+        Assert.assertEquals(rerunAfterFailureOf("E"), Arrays.asList("E"));
+    }
+
+    @Test
+    public void failureIsRethrownWhenTheHandlerDoesNotRetry() {
+        IllegalStateException failure = new IllegalStateException("fallo permanente");
+        CheckpointedSteps steps = new CheckpointedSteps()
+                .step("A", () -> { })
+                .step("B", () -> {
+                    throw failure;
+                }, "A");
+
+        IllegalStateException thrown = Assert.expectThrows(IllegalStateException.class,
+                () -> steps.run((step, error, attempt, rerun) -> false));
+        Assert.assertSame(thrown, failure);
+        Assert.assertEquals(steps.getAttempts(), 1);
+    }
+
+    @Test
+    public void onlyVerifyStepsAreVerifications() {
+        CheckpointedSteps steps = new CheckpointedSteps()
+                .step("Navegación", () -> { })
+                .verify("Resultados", () -> { }, "Navegación");
+
+        Assert.assertFalse(steps.isVerification("Navegación"));
+        Assert.assertTrue(steps.isVerification("Resultados"));
+        Assert.assertFalse(steps.isVerification("Inexistente"));
+        Assert.assertEquals(steps.firstStep(), "Navegación");
+    }
+
+    @Test
+    public void dependenciesMustBeDeclaredBeforeAndNamesMustBeUnique() {
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> new CheckpointedSteps().step("B", () -> { }, "A"));
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> new CheckpointedSteps().step("A", () -> { }).step("A", () -> { }));
+    }
+
+    /**
+     * A ← B, A ← C ← D, E independiente. El paso indicado falla una vez; devuelve los pasos a repetir.
+     */
+    private static List<String> rerunAfterFailureOf(String failing) {
+        AtomicInteger failures = new AtomicInteger();
+        CheckpointedSteps steps = new CheckpointedSteps();
+        steps.step("A", action("A", failing, failures))
+                .step("B", action("B", failing, failures), "A")
+                .step("C", action("C", failing, failures), "A")
+                .step("D", action("D", failing, failures), "C")
+                .step("E", action("E", failing, failures));
+
+        List<Set<String>> reruns = new ArrayList<>();
+        steps.run((step, failure, attempt, stepsToRerun) -> {
+            reruns.add(stepsToRerun);
+            return true;
+        });
+
+        Assert.assertEquals(reruns.size(), 1);
+        Assert.assertEquals(steps.getAttempts(), 2);
+        return new ArrayList<>(reruns.get(0));
+    }
+
+    private static Runnable action(String name, String failing, AtomicInteger failures) {
+        return () -> {
+            if (name.equals(failing) && failures.getAndIncrement() == 0) {
+                throw new IllegalStateException(name + " falla una vez");
+            }
+        };
+    }
+}
@@ -0,0 +1,242 @@
+package com.selenium.grid.test.utils;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+///**
+// * ✅ LATENCIA POR COMANDO WEBDRIVER
+// *
+// * Decora cada driver con un WebDriverListener (EventFiringDecorator) que mide:
+// * - Comandos del driver (get, findElement, executeScript, screenshot, quit...)
+// * - Comandos de elementos (element.click, element.sendKeys...) y navegación (navigate.*)
+// * - Un LatencyHistogram por navegador + comando (sin asignaciones por llamada)
+// * - Al final de la suite: p50/p95/p99 en target/command-latency.json y adjunto Allure
+// * - Desactivable con -Dgrid.metrics.commands=false
+// */
+public class CommandLatencyRecorder {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("grid.metrics.commands", "true"));
+    private static final Path REPORT_FILE =
+            Paths.get(System.getProperty("grid.metrics.commandsFile", "target/command-latency.json"));
+
+    // Llamadas locales del proxy (no viajan al Grid) que solo añadirían ruido
+    private static final Set<String> IGNORED_METHODS = new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "getWrappedDriver", "getWrappedElement",
+            "getSessionId", "getCapabilities", "getCommandExecutor", "getErrorHandler", "getFileDetector",
+            "toString", "hashCode", "equals"));
+
+    private static final CommandLatencyRecorder SHARED = new CommandLatencyRecorder();
+
+    // Pila de instantes de inicio por hilo (las llamadas del proxy pueden anidarse)
+    private static final ThreadLocal<StartStack> START_STACK = ThreadLocal.withInitial(StartStack::new);
+
+    private final Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+    private final AtomicLong publishedCount = new AtomicLong(-1);
+
+    public static CommandLatencyRecorder shared() {
+        return SHARED;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * ✅ Devuelve el driver decorado con el listener de latencias y, si la sesión está en
+     * SessionRegistry, con su listener de actividad (un único decorador por driver).
+     * El proxy extiende RemoteWebDriver, así que los casts existentes siguen funcionando.
+     */
+    public static WebDriver instrument(WebDriver driver, String browser) {
+        if (!(driver instanceof RemoteWebDriver)) {
+            return driver;
+        }
+        List<WebDriverListener> listeners = new ArrayList<>(2);
+        if (ENABLED) {
+            listeners.add(new LatencyListener(SHARED, GridTopology.normalizeBrowser(browser)));
+        }
+        WebDriverListener activity = SessionRegistry.shared().activityListener(driver);
+        if (activity != null) {
+            listeners.add(activity);
+        }
+        if (listeners.isEmpty()) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(RemoteWebDriver.class, listeners.toArray(new WebDriverListener[0]))
+                .decorate((RemoteWebDriver) driver);
+    }
+
+    /**
+     * ✅ Registra una latencia para un navegador y comando
+     */
+    public void record(String browser, String command, long nanos) {
+        histograms.computeIfAbsent(browser, b -> new ConcurrentHashMap<>())
+                .computeIfAbsent(command, c -> new LatencyHistogram())
+                .recordNanos(nanos);
+    }
+
+    /**
+     * ✅ Resumen navegador → comando → {count, mean, p50, p95, p99, max} (ms)
+     */
+    public Map<String, Map<String, Map<String, Object>>> snapshot() {
+        Map<String, Map<String, Map<String, Object>>> report = new TreeMap<>();
+        histograms.forEach((browser, commands) -> {
+            Map<String, Map<String, Object>> perCommand = new TreeMap<>();
+            commands.forEach((command, histogram) -> perCommand.put(command, summarize(histogram)));
+            report.put(browser, perCommand);
+        });
+        return report;
+    }
+
+    /**
+     * ✅ Escribe el JSON y lo adjunta a Allure (SuiteTeardownListener al final de la suite):
+     * si no hay llamadas nuevas desde la última publicación no se repite el adjunto.
+     */
+    public void publish() {
+        long total = totalCount();
+        if (total == 0 || publishedCount.getAndSet(total) == total) {
+            return;
+        }
+
+        String json = new Json().toJson(snapshot());
+        try {
+            Path parent = REPORT_FILE.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Files.write(REPORT_FILE, json.getBytes(StandardCharsets.UTF_8));
+            System.out.println("⏱️ Latencias por comando (" + total + " llamadas) en " + REPORT_FILE);
+        } catch (IOException e) {
+            System.err.println("⚠️ No se pudo escribir " + REPORT_FILE + ": " + e.getMessage());
+        }
+        Allure.addAttachment("WebDriver Command Latency", "application/json", json, ".json");
+    }
+
+    private long totalCount() {
+        long total = 0;
+        for (Map<String, LatencyHistogram> commands : histograms.values()) {
+            for (LatencyHistogram histogram : commands.values()) {
+                total += histogram.getCount();
+            }
+        }
+        return total;
+    }
+
+    private static Map<String, Object> summarize(LatencyHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getCount());
+        summary.put("meanMs", round(histogram.getMeanMillis()));
+        summary.put("p50Ms", round(histogram.getPercentileMillis(50)));
+        summary.put("p95Ms", round(histogram.getPercentileMillis(95)));
+        summary.put("p99Ms", round(histogram.getPercentileMillis(99)));
+        summary.put("maxMs", round(histogram.getMaxMillis()));
+        return summary;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100.0) / 100.0;
+    }
+
+    private static String commandName(Object target, Method method) {
+        String name = method.getName();
+        if (IGNORED_METHODS.contains(name)) {
+            return null;
+        }
+        if (target instanceof WebDriver) {
+            return name.equals("getScreenshotAs") ? "screenshot" : name;
+        }
+        if (target instanceof WebElement) {
+            return "element." + (name.equals("getScreenshotAs") ? "screenshot" : name);
+        }
+        if (target instanceof WebDriver.Navigation) {
+            return "navigate." + name;
+        }
+        return null;
+    }
+
+    private static class LatencyListener implements WebDriverListener {
+        private final CommandLatencyRecorder recorder;
+        private final String browser;
+
+        private LatencyListener(CommandLatencyRecorder recorder, String browser) {
+            this.recorder = recorder;
+            this.browser = browser;
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            START_STACK.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            finish(target, method);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            finish(target, method);
+        }
+
+        private void finish(Object target, Method method) {
+            StartStack stack = START_STACK.get();
+            if (!stack.pop()) return;
+            long elapsed = System.nanoTime() - stack.poppedStart;
+
+            String command = commandName(target, method);
+            if (command != null) {
+                recorder.record(browser, command, elapsed);
+            }
+        }
+    }
+
+    /**
+     * ✅ Pila de inicios con profundidad independiente de los huecos: por encima de
+     * MAX_DEPTH solo se cuenta el nivel y esas llamadas no se miden, así un
+     * anidamiento excesivo nunca pisa el inicio de una llamada exterior
+     */
+    static final class StartStack {
+        static final int MAX_DEPTH = 16;
+
+        private final long[] starts = new long[MAX_DEPTH];
+        private int depth;
+        long poppedStart;
+
+        void push(long nanos) {
+            if (depth < MAX_DEPTH) {
+                starts[depth] = nanos;
+            }
+            depth++;
+        }
+
+        /** ✅ Cierra el nivel actual; true si tenía inicio medido (queda en poppedStart) */
+        boolean pop() {
+            if (depth == 0) return false;
+            depth--;
+            if (depth >= MAX_DEPTH) return false;
+            poppedStart = starts[depth];
+            return true;
+        }
+    }
+}
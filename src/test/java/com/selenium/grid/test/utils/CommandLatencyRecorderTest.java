@@ -0,0 +1,41 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+///**
+// * ✅ TESTS UNITARIOS: PILA DE INICIOS DEL LISTENER DE LATENCIAS (anidamiento y desbordamiento)
+// */
+public class CommandLatencyRecorderTest {
+
+    @Test
+    public void nestedCallsPopTheirOwnStartInReverseOrder() {
+        CommandLatencyRecorder.StartStack stack = new CommandLatencyRecorder.StartStack();
+        stack.push(10);
+        stack.push(20);
+
+        Assert.assertTrue(stack.pop());
+        Assert.assertEquals(stack.poppedStart, 20);
+        Assert.assertTrue(stack.pop());
+        Assert.assertEquals(stack.poppedStart, 10);
+        Assert.assertFalse(stack.pop(), "Sin llamadas abiertas no hay nada que medir");
+    }
+
+    @Test
+    public void overflowedLevelsAreSkippedWithoutOverwritingOuterStarts() {
+        CommandLatencyRecorder.StartStack stack = new CommandLatencyRecorder.StartStack();
+        int depth = CommandLatencyRecorder.StartStack.MAX_DEPTH + 3;
+        for (int level = 0; level < depth; level++) {
+            stack.push(level);
+        }
+
+        for (int level = depth - 1; level >= CommandLatencyRecorder.StartStack.MAX_DEPTH; level--) {
+            Assert.assertFalse(stack.pop(), "El nivel " + level + " desbordado no se mide");
+        }
+        for (int level = CommandLatencyRecorder.StartStack.MAX_DEPTH - 1; level >= 0; level--) {
+            Assert.assertTrue(stack.pop());
+            Assert.assertEquals(stack.poppedStart, level);
+        }
+        Assert.assertFalse(stack.pop());
+    }
+}
@@ -0,0 +1,365 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+///**
+// * ✅ POOL DE SESIONES REMOTAS REUTILIZABLES
+// *
+// * Evita crear una sesión nueva en el Grid por cada @Test:
+// * - Sesiones agrupadas por navegador + capabilities
+// * - Reset entre tests (cookies, storage, ventanas extra, about:blank)
+// * - Expulsión por número de usos (grid.pool.maxUses) y edad (grid.pool.maxAgeSeconds)
+// * - Validación de salud antes de entregar una sesión
+// * - Las sesiones descartadas se cierran en segundo plano (SessionReaper)
+// * - Desactivable con -Dgrid.pool.enabled=false
+// * - Prefetch: crea en segundo plano la sesión que necesitará el próximo test cuando
+// *   no habrá ninguna reutilizable (grid.prefetch.enabled, grid.prefetch.maxInFlight)
+// */
+public class DriverSessionPool {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("grid.pool.enabled", "true"));
+    private static final int DEFAULT_MAX_USES = Integer.getInteger("grid.pool.maxUses", 10);
+    private static final Duration DEFAULT_MAX_AGE =
+            Duration.ofSeconds(Long.getLong("grid.pool.maxAgeSeconds", 240));
+
+    private static final boolean PREFETCH_ENABLED =
+            Boolean.parseBoolean(System.getProperty("grid.prefetch.enabled", "true"));
+    private static final int PREFETCH_MAX_IN_FLIGHT = Integer.getInteger("grid.prefetch.maxInFlight", 1);
+
+    private static final ExecutorService PREFETCH_EXECUTOR = VirtualThreads.newPerTaskExecutor("session-prefetch",
+            () -> Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "session-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private static final DriverSessionPool SHARED = new DriverSessionPool(DEFAULT_MAX_USES, DEFAULT_MAX_AGE);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SHARED::shutdown, "driver-pool-shutdown"));
+    }
+
+    private final int maxUses;
+    private final Duration maxAge;
+    private final Map<String, Deque<PooledSession>> idleSessions = new ConcurrentHashMap<>();
+    private final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+    private final Map<String, Deque<CompletableFuture<WebDriver>>> prefetchedSessions = new ConcurrentHashMap<>();
+
+    public DriverSessionPool(int maxUses, Duration maxAge) {
+        this.maxUses = maxUses;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * ✅ Pool compartido por toda la suite
+     */
+    public static DriverSessionPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * ✅ Entrega una sesión viva para las capabilities indicadas, creando una nueva solo si no hay
+     * ninguna reutilizable. El factory se encarga de crear y configurar el driver (timeouts, ventana).
+     */
+    public WebDriver lease(String browser, Capabilities capabilities, Callable<WebDriver> factory) {
+        String key = poolKey(browser, capabilities);
+
+        if (ENABLED) {
+            Deque<PooledSession> idle = idleSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+            PooledSession candidate;
+            while ((candidate = idle.pollFirst()) != null) {
+                if (isExpired(candidate)) {
+                    discard(candidate, "expirada (" + candidate.uses + " usos)");
+                } else if (!isHealthy(candidate.driver)) {
+                    discard(candidate, "no responde");
+                } else {
+                    candidate.uses++;
+                    leasedSessions.put(candidate.driver, candidate);
+                    SessionRegistry.shared().claim(candidate.driver);
+                    System.out.println("♻️ Reutilizando sesión " + describe(candidate) + " para " + browser);
+                    return candidate.driver;
+                }
+            }
+        }
+
+        WebDriver prefetched = takePrefetched(key);
+        if (prefetched != null) {
+            PooledSession session = new PooledSession(key, prefetched);
+            leasedSessions.put(prefetched, session);
+            SessionRegistry.shared().claim(prefetched);
+            System.out.println("⚡ Sesión precargada " + describe(session) + " para " + browser);
+            return prefetched;
+        }
+
+        WebDriver driver;
+        try {
+            driver = factory.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new WebDriverException("No se pudo crear la sesión para " + browser, e);
+        }
+
+        PooledSession session = new PooledSession(key, driver);
+        leasedSessions.put(driver, session);
+        System.out.println("🆕 Nueva sesión " + describe(session) + " para " + browser);
+        return driver;
+    }
+
+    /**
+     * ✅ Lanza en segundo plano la creación de una sesión si las próximas peticiones
+     * (upcomingLeases) superan las sesiones que habrá disponibles: ociosas, en precarga y
+     * las prestadas que volverán al pool. Devuelve true si se lanzó una precarga.
+     */
+    public boolean prefetch(String browser, Capabilities capabilities, Callable<WebDriver> factory, int upcomingLeases) {
+        if (!PREFETCH_ENABLED || upcomingLeases <= 0) {
+            return false;
+        }
+
+        String key = poolKey(browser, capabilities);
+        Deque<CompletableFuture<WebDriver>> inFlight =
+                prefetchedSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+        synchronized (inFlight) {
+            int supply = inFlight.size();
+            if (ENABLED) {
+                Deque<PooledSession> idle = idleSessions.get(key);
+                supply += idle != null ? idle.size() : 0;
+                for (PooledSession leased : leasedSessions.values()) {
+                    // Las prestadas que no expiran volverán al pool al terminar su test
+                    if (leased.key.equals(key) && !isExpired(leased)) {
+                        supply++;
+                    }
+                }
+            }
+            if (supply >= upcomingLeases || inFlight.size() >= PREFETCH_MAX_IN_FLIGHT) {
+                return false;
+            }
+
+            inFlight.offerLast(CompletableFuture.supplyAsync(() -> {
+                try {
+                    WebDriver driver = factory.call();
+                    // Hasta que un test la tome es del pool, no una fuga
+                    SessionRegistry.shared().markPooled(driver);
+                    return driver;
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new WebDriverException("No se pudo precargar la sesión para " + browser, e);
+                }
+            }, PREFETCH_EXECUTOR));
+        }
+        System.out.println("⏩ Precargando sesión para " + browser + " (" + upcomingLeases + " tests pendientes)");
+        return true;
+    }
+
+    /**
+     * ✅ Sesiones de un navegador que ocupan un slot del Grid sin estar prestadas a un test
+     * (ociosas y precargas en curso o listas). GridSlotScheduler las cuenta contra su capacidad.
+     */
+    public int unleasedSessions(String browser) {
+        String normalized = GridTopology.normalizeBrowser(browser);
+        int held = 0;
+        for (Map.Entry<String, Deque<PooledSession>> idle : idleSessions.entrySet()) {
+            if (browserOf(idle.getKey()).equals(normalized)) {
+                held += idle.getValue().size();
+            }
+        }
+        for (Map.Entry<String, Deque<CompletableFuture<WebDriver>>> inFlight : prefetchedSessions.entrySet()) {
+            if (browserOf(inFlight.getKey()).equals(normalized)) {
+                held += inFlight.getValue().size();
+            }
+        }
+        return held;
+    }
+
+    /**
+     * ✅ Sesiones que lease() entregaría a estas capabilities sin crear otra (ociosas y precargas).
+     * Las de otras capabilities del mismo navegador no cuentan: no se pueden reutilizar.
+     */
+    public int reusableSessions(String browser, Capabilities capabilities) {
+        String key = poolKey(browser, capabilities);
+        Deque<PooledSession> idle = idleSessions.get(key);
+        Deque<CompletableFuture<WebDriver>> inFlight = prefetchedSessions.get(key);
+        return (ENABLED && idle != null ? idle.size() : 0) + (inFlight != null ? inFlight.size() : 0);
+    }
+
+    /**
+     * ✅ Devuelve la sesión al pool tras resetear el estado del navegador.
+     * Si el reset falla o la sesión superó sus límites, se cierra.
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) return;
+
+        PooledSession session = leasedSessions.remove(driver);
+        if (session == null) {
+            SessionReaper.shared().reap(driver, "fuera del pool");
+            return;
+        }
+
+        if (!ENABLED || isExpired(session)) {
+            discard(session, ENABLED ? "límite alcanzado" : "pool deshabilitado");
+            return;
+        }
+
+        if (!resetBrowserState(driver)) {
+            discard(session, "reset fallido");
+            return;
+        }
+
+        SessionRegistry.shared().markPooled(driver);
+        idleSessions.computeIfAbsent(session.key, k -> new ConcurrentLinkedDeque<>()).offerFirst(session);
+    }
+
+    /**
+     * ✅ Cierra una sesión prestada sin devolverla (p.ej. si quedó corrupta)
+     */
+    public void invalidate(WebDriver driver) {
+        if (driver == null) return;
+
+        PooledSession session = leasedSessions.remove(driver);
+        if (session != null) {
+            discard(session, "invalidada");
+        } else {
+            SessionReaper.shared().reap(driver, "fuera del pool");
+        }
+    }
+
+    /**
+     * ✅ Cierra todas las sesiones ociosas y prestadas (fin de suite)
+     */
+    public void shutdown() {
+        List<PooledSession> remaining = new ArrayList<>();
+        idleSessions.values().forEach(idle -> {
+            PooledSession session;
+            while ((session = idle.pollFirst()) != null) {
+                remaining.add(session);
+            }
+        });
+        remaining.addAll(leasedSessions.values());
+        leasedSessions.clear();
+
+        // Precargas sin usar: se esperan y se cierran para no dejar slots ocupados en el Grid
+        prefetchedSessions.values().forEach(inFlight -> {
+            CompletableFuture<WebDriver> future;
+            while ((future = inFlight.pollFirst()) != null) {
+                future.thenAccept(driver -> {
+                    System.out.println("🗑️ Cerrando sesión precargada sin usar");
+                    SessionReaper.shared().reap(driver, "precargada");
+                }).exceptionally(e -> null).join();
+            }
+        });
+
+        for (PooledSession session : remaining) {
+            discard(session, "fin de suite");
+        }
+        // Los quit() se hacen en paralelo en el reaper; la suite no termina con sesiones abiertas
+        SessionReaper.shared().drain();
+    }
+
+    /**
+     * ✅ Toma la sesión precargada más antigua (esperando a que termine de crearse)
+     */
+    private WebDriver takePrefetched(String key) {
+        Deque<CompletableFuture<WebDriver>> inFlight = prefetchedSessions.get(key);
+        CompletableFuture<WebDriver> future;
+        while (inFlight != null && (future = inFlight.pollFirst()) != null) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                System.err.println("⚠️ Precarga fallida, se crea la sesión en el momento: "
+                        + e.getCause().getMessage());
+            }
+        }
+        return null;
+    }
+
+    private boolean resetBrowserState(WebDriver driver) {
+        try {
+            // Cerrar pestañas/ventanas abiertas por el test y volver a la original
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            if (handles.isEmpty()) return false;
+            for (int i = 1; i < handles.size(); i++) {
+                driver.switchTo().window(handles.get(i)).close();
+            }
+            driver.switchTo().window(handles.get(0));
+
+            // Cookies y storage se limpian sobre el origen actual, antes de salir de la página
+            SeleniumGridUtils.cleanBrowserState(driver);
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Error reseteando sesión: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledSession session) {
+        return session.uses >= maxUses
+                || Duration.ofNanos(System.nanoTime() - session.createdAtNanos).compareTo(maxAge) > 0;
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() == null) {
+                return false;
+            }
+            return driver.getWindowHandle() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledSession session, String reason) {
+        System.out.println("🗑️ Cerrando sesión " + describe(session) + ": " + reason);
+        SessionReaper.shared().reap(session.driver, describe(session));
+    }
+
+    private static String poolKey(String browser, Capabilities capabilities) {
+        return browser.toLowerCase() + "|" + new TreeMap<>(capabilities.asMap());
+    }
+
+    private static String browserOf(String poolKey) {
+        return GridTopology.normalizeBrowser(poolKey.substring(0, poolKey.indexOf('|')));
+    }
+
+    private static String describe(PooledSession session) {
+        if (session.driver instanceof RemoteWebDriver) {
+            Object sessionId = ((RemoteWebDriver) session.driver).getSessionId();
+            if (sessionId != null) {
+                String id = sessionId.toString();
+                return id.length() > 8 ? id.substring(0, 8) + "..." : id;
+            }
+        }
+        return "local";
+    }
+
+    private static class PooledSession {
+        private final String key;
+        private final WebDriver driver;
+        private final long createdAtNanos = System.nanoTime();
+        private int uses = 1;
+
+        private PooledSession(String key, WebDriver driver) {
+            this.key = key;
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+///**
+// * ✅ SHARDING POR DURACIÓN HISTÓRICA
+// *
+// * Listener TestNG que reparte los tests entre K shards del CI:
+// * - Registra la duración de cada método en TestDurationHistory (test-durations.json)
+// * - Con -Dgrid.shard=i/K ejecuta solo el shard i (1..K)
+// * - Reparto LPT: del más largo al más corto, cada test al shard con menos carga acumulada
+// * - El reparto es determinista: todos los shards deben leer el mismo fichero de historial
+// * - Los métodos que ejecuta este shard quedan en el &lt;test&gt; (scheduledMethods) para quien
+// *   necesite saber qué tests quedan, p.ej. la precarga de sesiones
+// */
+public class DurationShardingListener implements IMethodInterceptor, ITestListener, ISuiteListener {
+
+    private static final String SHARD = System.getProperty("grid.shard", "");
+    private static final boolean RECORD =
+            Boolean.parseBoolean(System.getProperty("grid.shard.record", "true"));
+    private static final String SCHEDULED_METHODS_ATTRIBUTE = "grid.scheduledMethods";
+
+    /**
+     * ✅ Filtra los métodos de cada &lt;test&gt; dejando solo los del shard actual (orden original)
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int[] shard = parseShard(SHARD);
+        if (shard == null) {
+            context.setAttribute(SCHEDULED_METHODS_ATTRIBUTE, methodsOf(methods));
+            return methods;
+        }
+
+        Map<String, Double> estimates = estimate(methods);
+        Set<String> selected = assign(estimates, shard[1]).get(shard[0] - 1);
+
+        List<IMethodInstance> result = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (selected.contains(keyOf(method))) {
+                result.add(method);
+            }
+        }
+
+        context.setAttribute(SCHEDULED_METHODS_ATTRIBUTE, methodsOf(result));
+
+        double total = estimates.values().stream().mapToDouble(Double::doubleValue).sum();
+        double mine = selected.stream().mapToDouble(estimates::get).sum();
+        System.out.println(String.format("🧩 Shard %d/%d [%s]: %d de %d métodos, estimado %.1fs (ideal %.1fs)",
+                shard[0], shard[1], context.getName(), result.size(), methods.size(), mine, total / shard[1]));
+        return result;
+    }
+
+    /**
+     * ✅ Métodos que se ejecutan en este &lt;test&gt; tras el filtro del shard
+     * (sin este listener registrado, todos los del &lt;test&gt;)
+     */
+    @SuppressWarnings("unchecked")
+    public static List<ITestNGMethod> scheduledMethods(ITestContext context) {
+        Object scheduled = context.getAttribute(SCHEDULED_METHODS_ATTRIBUTE);
+        return scheduled != null ? (List<ITestNGMethod>) scheduled : Arrays.asList(context.getAllTestMethods());
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        recordDuration(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        recordDuration(result);
+    }
+
+    /**
+     * ✅ Al terminar la suite se fusiona la ejecución actual con el historial
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (RECORD) {
+            TestDurationHistory.shared().save();
+        }
+    }
+
+    /**
+     * ✅ Reparto LPT: devuelve, para cada shard, las claves de los métodos asignados
+     */
+    static List<Set<String>> assign(Map<String, Double> estimates, int shards) {
+        List<Map.Entry<String, Double>> ordered = new ArrayList<>(estimates.entrySet());
+        // Desempate por nombre para que todos los shards calculen el mismo reparto
+        ordered.sort(Map.Entry.<String, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<Set<String>> assignment = new ArrayList<>();
+        double[] load = new double[shards];
+        for (int i = 0; i < shards; i++) {
+            assignment.add(new HashSet<>());
+        }
+
+        for (Map.Entry<String, Double> entry : ordered) {
+            int lightest = 0;
+            for (int i = 1; i < shards; i++) {
+                if (load[i] < load[lightest]) lightest = i;
+            }
+            assignment.get(lightest).add(entry.getKey());
+            load[lightest] += entry.getValue();
+        }
+        return assignment;
+    }
+
+    /**
+     * ✅ Interpreta "i/K" (1 ≤ i ≤ K); null si no hay sharding
+     */
+    static int[] parseShard(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().split("/");
+        try {
+            int index = Integer.parseInt(parts[0].trim());
+            int total = Integer.parseInt(parts[1].trim());
+            if (total >= 1 && index >= 1 && index <= total) {
+                return new int[]{index, total};
+            }
+        } catch (RuntimeException e) {
+            // Formato inválido: se informa abajo
+        }
+        throw new IllegalArgumentException("grid.shard debe tener el formato i/K (1 ≤ i ≤ K): " + value);
+    }
+
+    private static Map<String, Double> estimate(List<IMethodInstance> methods) {
+        Map<String, Double> estimates = new LinkedHashMap<>();
+        for (IMethodInstance method : methods) {
+            String key = keyOf(method);
+            estimates.put(key, TestDurationHistory.shared().estimateSeconds(key));
+        }
+        return estimates;
+    }
+
+    private static List<ITestNGMethod> methodsOf(List<IMethodInstance> methods) {
+        List<ITestNGMethod> result = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            result.add(method.getMethod());
+        }
+        return result;
+    }
+
+    private static void recordDuration(ITestResult result) {
+        TestDurationHistory.shared().record(TestDurationHistory.keyOf(result.getMethod()),
+                result.getEndMillis() - result.getStartMillis());
+    }
+
+    private static String keyOf(IMethodInstance method) {
+        return TestDurationHistory.keyOf(method.getMethod());
+    }
+}
@@ -0,0 +1,83 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+///**
+// * ✅ TESTS UNITARIOS: REPARTO LPT Y FORMATO DE grid.shard
+// */
+public class DurationShardingListenerTest {
+
+    @Test
+    public void parseShardAcceptsIndexOverTotal() {
+        Assert.assertEquals(DurationShardingListener.parseShard("2/3"), new int[]{2, 3});
+        Assert.assertEquals(DurationShardingListener.parseShard(" 1 / 1 "), new int[]{1, 1});
+    }
+
+    @Test
+    public void parseShardWithoutValueMeansNoSharding() {
+        Assert.assertNull(DurationShardingListener.parseShard(null));
+        Assert.assertNull(DurationShardingListener.parseShard("  "));
+    }
+
+    @Test
+    public void parseShardRejectsInvalidValues() {
+        for (String invalid : new String[]{"0/3", "4/3", "1/0", "3", "a/b"}) {
+            Assert.expectThrows(IllegalArgumentException.class, () -> DurationShardingListener.parseShard(invalid));
+        }
+    }
+
+    @Test
+    public void assignGivesEachMethodToTheLightestShardLongestFirst() {
+        Map<String, Double> estimates = new LinkedHashMap<>();
+        estimates.put("e", 3.0);
+        estimates.put("a", 10.0);
+        estimates.put("c", 5.0);
+        estimates.put("b", 8.0);
+        estimates.put("d", 4.0);
+
+        List<Set<String>> shards = DurationShardingListener.assign(estimates, 2);
+
+        // a→1 (10), b→2 (8), c→2 (13), d→1 (14), e→2 (16)
+        Assert.assertEquals(shards.get(0), Set.of("a", "d"));
+        Assert.assertEquals(shards.get(1), Set.of("b", "c", "e"));
+    }
+
+    @Test
+    public void assignBreaksTiesByNameSoEveryShardComputesTheSameSplit() {
+        Map<String, Double> estimates = new LinkedHashMap<>();
+        estimates.put("z", 1.0);
+        estimates.put("x", 1.0);
+        estimates.put("y", 1.0);
+
+        List<Set<String>> shards = DurationShardingListener.assign(estimates, 2);
+
+        Assert.assertEquals(shards.get(0), Set.of("x", "z"));
+        Assert.assertEquals(shards.get(1), Set.of("y"));
+    }
+
+    @Test
+    public void assignCoversEveryMethodExactlyOnceEvenWithMoreShardsThanMethods() {
+        Map<String, Double> estimates = new LinkedHashMap<>();
+        estimates.put("a", 2.0);
+        estimates.put("b", 1.0);
+
+        List<Set<String>> shards = DurationShardingListener.assign(estimates, 4);
+
+        Assert.assertEquals(shards.size(), 4);
+        Set<String> assigned = new HashSet<>();
+        int total = 0;
+        for (Set<String> shard : shards) {
+            assigned.addAll(shard);
+            total += shard.size();
+        }
+        Assert.assertEquals(assigned, estimates.keySet());
+        Assert.assertEquals(total, estimates.size());
+    }
+}
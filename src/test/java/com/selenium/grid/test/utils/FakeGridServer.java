@@ -0,0 +1,547 @@
+package com.selenium.grid.test.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Dialect;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+///**
+// * ✅ GRID FALSO EN PROCESO (PROTOCOLO W3C WEBDRIVER)
+// *
+// * Permite medir y probar el harness sin Hub, nodos ni navegadores reales:
+// * - Endpoints W3C: nueva sesión, navegación, findElement(s), executeScript, screenshot, quit
+// * - /status con nodos y slots (compatible con GridTopology) y GraphQL sessionQueueSize
+// * - Slots limitados por navegador: las sesiones sin slot esperan en una cola, como en el Hub
+// * - Latencia artificial (+ jitter) y tasa de fallos inyectados por comando
+// * - Se arranca en un puerto libre (puerto 0) o desde línea de comandos con main()
+// */
+public class FakeGridServer implements AutoCloseable {
+
+    public static final String ALL_COMMANDS = "*";
+    private static final String ELEMENT_KEY = Dialect.W3C.getEncodedElementKey();
+    private static final String WINDOW_HANDLE = "fake-window-1";
+    private static final Pattern SESSION_PATH = Pattern.compile("^/session/([^/]+)(/.*)?$");
+    private static final Json JSON = new Json();
+
+    private final Map<String, String[]> slots = new LinkedHashMap<>();
+    private final Map<String, Duration> latencies = new HashMap<>();
+    private final Map<String, Double> failureRates = new HashMap<>();
+    private final Map<String, FakeSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> commandCounts = new ConcurrentHashMap<>();
+    private final AtomicLong injectedFailures = new AtomicLong();
+    private final AtomicInteger queuedSessions = new AtomicInteger();
+    private final AtomicLong elementCounter = new AtomicLong();
+    private final Object slotMonitor = new Object();
+
+    private double jitter = 0.2;
+    private Duration newSessionTimeout = Duration.ofSeconds(60);
+    private String screenshotBase64;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * ✅ Arranque standalone: mvn exec:java -Dexec.classpathScope=test
+     *    -Dexec.mainClass=com.selenium.grid.test.utils.FakeGridServer -Dexec.args="4444"
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 4444;
+        int slotsPerBrowser = Integer.getInteger("grid.fake.slots", 4);
+        long latencyMillis = Long.getLong("grid.fake.latencyMillis", 50);
+        double failureRate = Double.parseDouble(System.getProperty("grid.fake.failureRate", "0"));
+
+        FakeGridServer fake = new FakeGridServer()
+                .withSlots("chrome", slotsPerBrowser)
+                .withSlots("firefox", slotsPerBrowser)
+                .withSlots("MicrosoftEdge", slotsPerBrowser)
+                .withLatency(ALL_COMMANDS, Duration.ofMillis(latencyMillis))
+                .withFailureRate(ALL_COMMANDS, failureRate)
+                .start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(fake::close, "fake-grid-stop"));
+        System.out.println("🧪 Grid falso escuchando en " + fake.getHubUrl() + " (Ctrl+C para parar)");
+        Thread.currentThread().join();
+    }
+
+    /**
+     * ✅ Slots concurrentes para un navegador (un nodo por navegador)
+     */
+    public FakeGridServer withSlots(String browserName, int count) {
+        slots.put(browserName, new String[count]);
+        return this;
+    }
+
+    /**
+     * ✅ Latencia artificial para un comando (newSession, get, findElement, executeScript,
+     * screenshot, quit...) o para todos con ALL_COMMANDS
+     */
+    public FakeGridServer withLatency(String command, Duration latency) {
+        latencies.put(command, latency);
+        return this;
+    }
+
+    /**
+     * ✅ Fracción (0-1) de la latencia aplicada como variación aleatoria
+     */
+    public FakeGridServer withJitter(double fraction) {
+        this.jitter = fraction;
+        return this;
+    }
+
+    /**
+     * ✅ Probabilidad (0-1) de que un comando falle con un error W3C
+     */
+    public FakeGridServer withFailureRate(String command, double rate) {
+        failureRates.put(command, rate);
+        return this;
+    }
+
+    public FakeGridServer withNewSessionTimeout(Duration timeout) {
+        this.newSessionTimeout = timeout;
+        return this;
+    }
+
+    public FakeGridServer start() throws IOException {
+        return start(0);
+    }
+
+    public FakeGridServer start(int port) throws IOException {
+        if (slots.isEmpty()) {
+            withSlots("chrome", 1).withSlots("firefox", 1).withSlots("MicrosoftEdge", 1);
+        }
+        screenshotBase64 = renderScreenshot();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-grid-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 128);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * ✅ URL con el mismo formato que HUB_URL de los tests (http://localhost:PORT/wd/hub)
+     */
+    public String getHubUrl() {
+        return "http://localhost:" + getPort() + "/wd/hub";
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    public int getQueuedSessions() {
+        return queuedSessions.get();
+    }
+
+    /**
+     * ✅ Comandos recibidos por tipo y fallos inyectados
+     */
+    public String getMetrics() {
+        Map<String, Long> counts = new TreeMap<>();
+        commandCounts.forEach((command, count) -> counts.put(command, count.get()));
+        return String.format("Grid falso | sesiones activas: %d | en cola: %d | fallos inyectados: %d | comandos: %s",
+                sessions.size(), queuedSessions.get(), injectedFailures.get(), counts);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().replaceFirst("^/wd/hub", "");
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            Map<String, Object> body = readBody(exchange);
+
+            if (path.equals("/status")) {
+                respond(exchange, 200, status());
+            } else if (path.equals("/graphql")) {
+                respond(exchange, 200, Collections.singletonMap("data", Collections.singletonMap("grid",
+                        Collections.singletonMap("sessionQueueSize", queuedSessions.get()))));
+            } else if (path.equals("/session") && method.equals("POST")) {
+                newSession(exchange, body);
+            } else {
+                Matcher matcher = SESSION_PATH.matcher(path);
+                if (!matcher.matches()) {
+                    error(exchange, 404, "unknown command", "Ruta no soportada: " + method + " " + path);
+                    return;
+                }
+                sessionCommand(exchange, method, matcher.group(1),
+                        matcher.group(2) == null ? "" : matcher.group(2), body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error(exchange, 500, "unknown error", "Interrumpido");
+        } catch (RuntimeException e) {
+            error(exchange, 500, "unknown error", e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void newSession(HttpExchange exchange, Map<String, Object> body) throws IOException, InterruptedException {
+        count("newSession");
+        Map<String, Object> capabilities = (Map<String, Object>) body.getOrDefault("capabilities", Collections.emptyMap());
+        Map<String, Object> alwaysMatch = (Map<String, Object>) capabilities.getOrDefault("alwaysMatch", Collections.emptyMap());
+        String requested = String.valueOf(alwaysMatch.getOrDefault("browserName", "chrome"));
+
+        String browserName = null;
+        for (String candidate : slots.keySet()) {
+            if (GridTopology.normalizeBrowser(candidate).equals(GridTopology.normalizeBrowser(requested))) {
+                browserName = candidate;
+            }
+        }
+        if (browserName == null) {
+            error(exchange, 500, "session not created", "Ningún nodo soporta: " + requested);
+            return;
+        }
+
+        String sessionId = UUID.randomUUID().toString().replace("-", "");
+        int slot = reserveSlot(browserName, sessionId);
+        if (slot < 0) {
+            error(exchange, 500, "session not created", "Timeout en la cola de nuevas sesiones: " + requested);
+            return;
+        }
+
+        sleep("newSession");
+        if (shouldFail("newSession")) {
+            freeSlot(browserName, slot);
+            error(exchange, 500, "session not created", "Fallo inyectado al crear la sesión");
+            return;
+        }
+
+        sessions.put(sessionId, new FakeSession(browserName, slot));
+        Map<String, Object> returned = new LinkedHashMap<>();
+        returned.put("browserName", browserName);
+        returned.put("browserVersion", "fake");
+        returned.put("platformName", "linux");
+        returned.put("se:fake", true);
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("sessionId", sessionId);
+        value.put("capabilities", returned);
+        respond(exchange, 200, Collections.singletonMap("value", value));
+    }
+
+    private void sessionCommand(HttpExchange exchange, String method, String sessionId, String command,
+                                Map<String, Object> body) throws IOException, InterruptedException {
+        FakeSession session = sessions.get(sessionId);
+        String name = commandName(method, command);
+        count(name);
+        if (session == null) {
+            error(exchange, 404, "invalid session id", "Sesión inexistente: " + sessionId);
+            return;
+        }
+
+        sleep(name);
+        if (shouldFail(name)) {
+            error(exchange, 500, "unknown error", "Fallo inyectado en " + name);
+            return;
+        }
+
+        Object value = null;
+        switch (name) {
+            case "quit":
+                sessions.remove(sessionId);
+                freeSlot(session.browserName, session.slot);
+                break;
+            case "get":
+                session.url = String.valueOf(body.get("url"));
+                break;
+            case "getCurrentUrl":
+                value = session.url;
+                break;
+            case "getTitle":
+                value = titleFor(session.url);
+                break;
+            case "findElement":
+                value = newElement();
+                break;
+            case "findElements":
+                value = Collections.singletonList(newElement());
+                break;
+            case "executeScript":
+                value = scriptResult(body);
+                break;
+            case "screenshot":
+                value = screenshotBase64;
+                break;
+            case "getWindowHandle":
+                value = WINDOW_HANDLE;
+                break;
+            case "getWindowHandles":
+                value = Collections.singletonList(WINDOW_HANDLE);
+                break;
+            case "window.rect":
+                value = rect(0, 0, 1920, 1080);
+                break;
+            case "getCookies":
+                value = Collections.emptyList();
+                break;
+            case "element.text":
+                value = "Fake text";
+                break;
+            case "element.displayed":
+            case "element.enabled":
+                value = true;
+                break;
+            case "element.selected":
+                value = false;
+                break;
+            case "element.name":
+                value = "div";
+                break;
+            case "element.rect":
+                value = rect(10, 10, 100, 20);
+                break;
+            case "element.css":
+                value = "";
+                break;
+            default:
+                break;
+        }
+        respond(exchange, 200, Collections.singletonMap("value", value));
+    }
+
+    private static String commandName(String method, String command) {
+        if (command.isEmpty()) return method.equals("DELETE") ? "quit" : "other";
+        if (command.equals("/url")) return method.equals("POST") ? "get" : "getCurrentUrl";
+        if (command.equals("/title")) return "getTitle";
+        if (command.equals("/window")) return method.equals("GET") ? "getWindowHandle" : "window.close";
+        if (command.equals("/window/handles")) return "getWindowHandles";
+        if (command.startsWith("/window/")) return "window.rect";
+        if (command.startsWith("/execute/")) return "executeScript";
+        if (command.endsWith("/screenshot")) return "screenshot";
+        if (command.equals("/cookie") && method.equals("GET")) return "getCookies";
+        if (command.endsWith("/elements")) return "findElements";
+        if (command.endsWith("/element")) return "findElement";
+        if (command.startsWith("/element/")) {
+            String[] parts = command.split("/");
+            return parts.length > 3 ? "element." + parts[3] : "other";
+        }
+        return "other";
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object scriptResult(Map<String, Object> body) {
+        String script = String.valueOf(body.get("script"));
+        List<Object> args = body.get("args") instanceof List ? (List<Object>) body.get("args") : Collections.emptyList();
+
+        // MultiSelectorLocator: se simula que el primer selector existe y es visible
+        if (script.contains("querySelectorAll") && !args.isEmpty() && args.get(0) instanceof List) {
+            return Arrays.asList(newElement(), 0);
+        }
+        if (script.contains("document.readyState")) {
+            return "complete";
+        }
+        return null;
+    }
+
+    private Map<String, Object> status() {
+        List<Object> nodes = new ArrayList<>();
+        synchronized (slotMonitor) {
+            slots.forEach((browserName, sessionIds) -> {
+                List<Object> nodeSlots = new ArrayList<>();
+                for (int i = 0; i < sessionIds.length; i++) {
+                    Map<String, Object> slot = new LinkedHashMap<>();
+                    slot.put("id", Collections.singletonMap("id", browserName + "-slot-" + i));
+                    slot.put("stereotype", Collections.singletonMap("browserName", browserName));
+                    slot.put("session", sessionIds[i] == null ? null
+                            : Collections.singletonMap("sessionId", sessionIds[i]));
+                    nodeSlots.add(slot);
+                }
+                Map<String, Object> node = new LinkedHashMap<>();
+                node.put("id", "fake-node-" + browserName);
+                node.put("uri", "http://localhost:" + getPort());
+                node.put("availability", "UP");
+                node.put("maxSessions", sessionIds.length);
+                node.put("slots", nodeSlots);
+                nodes.add(node);
+            });
+        }
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("ready", true);
+        value.put("message", "Selenium Grid ready (fake).");
+        value.put("nodes", nodes);
+        return Collections.singletonMap("value", value);
+    }
+
+    private int reserveSlot(String browserName, String sessionId) throws InterruptedException {
+        long deadline = System.nanoTime() + newSessionTimeout.toNanos();
+        queuedSessions.incrementAndGet();
+        try {
+            synchronized (slotMonitor) {
+                String[] sessionIds = slots.get(browserName);
+                while (true) {
+                    for (int i = 0; i < sessionIds.length; i++) {
+                        if (sessionIds[i] == null) {
+                            sessionIds[i] = sessionId;
+                            return i;
+                        }
+                    }
+                    long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remainingMillis <= 0) {
+                        return -1;
+                    }
+                    slotMonitor.wait(remainingMillis);
+                }
+            }
+        } finally {
+            queuedSessions.decrementAndGet();
+        }
+    }
+
+    private void freeSlot(String browserName, int slot) {
+        synchronized (slotMonitor) {
+            slots.get(browserName)[slot] = null;
+            slotMonitor.notifyAll();
+        }
+    }
+
+    private void sleep(String command) throws InterruptedException {
+        Duration latency = latencies.getOrDefault(command, latencies.get(ALL_COMMANDS));
+        if (latency == null || latency.isZero()) return;
+
+        long millis = latency.toMillis();
+        long spread = (long) (millis * jitter);
+        long actual = spread > 0 ? millis - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1) : millis;
+        Thread.sleep(Math.max(0, actual));
+    }
+
+    private boolean shouldFail(String command) {
+        double rate = failureRates.getOrDefault(command, failureRates.getOrDefault(ALL_COMMANDS, 0.0));
+        if (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+            injectedFailures.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void count(String command) {
+        commandCounts.computeIfAbsent(command, c -> new AtomicLong()).incrementAndGet();
+    }
+
+    private Map<String, Object> newElement() {
+        return Collections.singletonMap(ELEMENT_KEY, "fake-element-" + elementCounter.incrementAndGet());
+    }
+
+    private static Map<String, Object> rect(int x, int y, int width, int height) {
+        Map<String, Object> rect = new LinkedHashMap<>();
+        rect.put("x", x);
+        rect.put("y", y);
+        rect.put("width", width);
+        rect.put("height", height);
+        return rect;
+    }
+
+    /**
+     * ✅ "https://www.google.com/..." → "Google (fake)", para que las esperas por título pasen
+     */
+    private static String titleFor(String url) {
+        if (url == null) return "";
+        String host = url.replaceFirst("^[a-z]+://", "").replaceFirst("[/:?#].*$", "");
+        String[] labels = host.split("\\.");
+        String domain = labels.length >= 2 ? labels[labels.length - 2] : host;
+        if (domain.isEmpty()) return "";
+        return Character.toUpperCase(domain.charAt(0)) + domain.substring(1) + " (fake)";
+    }
+
+    private static String renderScreenshot() throws IOException {
+        BufferedImage image = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(0, 0, Color.WHITE, 1920, 1080, new Color(66, 133, 244)));
+            graphics.fillRect(0, 0, 1920, 1080);
+            graphics.setColor(Color.DARK_GRAY);
+            graphics.drawString("Fake Selenium Grid", 40, 60);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return Base64.getEncoder().encodeToString(output.toByteArray());
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            String content = new String(input.readAllBytes(), StandardCharsets.UTF_8).trim();
+            return content.startsWith("{") ? JSON.toType(content, Json.MAP_TYPE) : Collections.emptyMap();
+        }
+    }
+
+    private static void error(HttpExchange exchange, int status, String error, String message) throws IOException {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("error", error);
+        value.put("message", message);
+        value.put("stacktrace", "");
+        respond(exchange, status, Collections.singletonMap("value", value));
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object payload) throws IOException {
+        byte[] bytes = JSON.toJson(payload).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static class FakeSession {
+        private final String browserName;
+        private final int slot;
+        private volatile String url = "about:blank";
+
+        private FakeSession(String browserName, int slot) {
+            this.browserName = browserName;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+///**
+// * ✅ FÁBRICA CENTRAL DE RemoteWebDriver CON CLIENTE HTTP COMPARTIDO
+// *
+// * new RemoteWebDriver(url, caps) construye un cliente HTTP por sesión (conexiones y executor
+// * propios, timeouts por defecto) y lo cierra en quit(). Esta fábrica:
+// * - Comparte un cliente por Hub entre todas las sesiones: las conexiones keep-alive se reutilizan
+// * - Ajusta timeouts: grid.http.connectTimeoutSeconds (5) y grid.http.readTimeoutSeconds (180,
+// *   cubre la espera en la cola de sesiones del Hub)
+// * - HTTP/2 opcional con -Dgrid.http.version=HTTP_2 (por defecto HTTP_1_1)
+// * - quit() no cierra el cliente compartido: vive lo que la JVM (shutdown() en programas standalone)
+// * - -Dgrid.http.shared=false vuelve al cliente por sesión (comparativas / diagnóstico)
+// */
+public class GridDriverFactory {
+
+    private static final boolean SHARED_CLIENT =
+            Boolean.parseBoolean(System.getProperty("grid.http.shared", "true"));
+    private static final Duration CONNECT_TIMEOUT =
+            Duration.ofSeconds(Long.getLong("grid.http.connectTimeoutSeconds", 5));
+    private static final Duration READ_TIMEOUT =
+            Duration.ofSeconds(Long.getLong("grid.http.readTimeoutSeconds", 180));
+    private static final String HTTP_VERSION = System.getProperty("grid.http.version", "HTTP_1_1");
+
+    private static final GridDriverFactory SHARED = new GridDriverFactory(SHARED_CLIENT);
+
+    private final boolean sharedClient;
+    private final HttpClient.Factory delegate = HttpClient.Factory.createDefault();
+    private final Map<String, SharedClient> clients = new ConcurrentHashMap<>();
+    private final AtomicLong driversCreated = new AtomicLong();
+    private final AtomicLong clientsCreated = new AtomicLong();
+
+    public GridDriverFactory(boolean sharedClient) {
+        this.sharedClient = sharedClient;
+    }
+
+    public static GridDriverFactory shared() {
+        return SHARED;
+    }
+
+    /**
+     * ✅ Crea la sesión contra el Hub indicado con el cliente HTTP de la fábrica
+     */
+    public RemoteWebDriver create(String hubUrl, Capabilities capabilities) throws MalformedURLException {
+        return create(new URL(hubUrl), capabilities);
+    }
+
+    public RemoteWebDriver create(URL hubUrl, Capabilities capabilities) {
+        HttpClient.Factory factory = sharedClient ? this::sharedClientFor : countingFactory();
+        HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), clientConfig(hubUrl), factory);
+        RemoteWebDriver driver = new RemoteWebDriver(executor, capabilities);
+        driversCreated.incrementAndGet();
+        return driver;
+    }
+
+    /**
+     * ✅ Configuración del cliente (timeouts y versión HTTP) para un Hub
+     */
+    public ClientConfig clientConfig(URL hubUrl) {
+        return ClientConfig.defaultConfig()
+                .baseUrl(hubUrl)
+                .connectionTimeout(CONNECT_TIMEOUT)
+                .readTimeout(READ_TIMEOUT)
+                .version(HTTP_VERSION);
+    }
+
+    /**
+     * ✅ Cierra los clientes compartidos (benchmarks y programas standalone, con todas las sesiones
+     * ya cerradas). En la suite no se llama: otra clase puede seguir usando sus sesiones.
+     */
+    public void shutdown() {
+        for (String key : clients.keySet()) {
+            SharedClient client = clients.remove(key);
+            if (client != null) {
+                client.delegate.close();
+            }
+        }
+    }
+
+    public String getMetrics() {
+        return String.format("Drivers creados: %d | clientes HTTP: %d (%s, %s, connect %ds, read %ds)",
+                driversCreated.get(), clientsCreated.get(), sharedClient ? "compartido" : "por sesión",
+                HTTP_VERSION, CONNECT_TIMEOUT.getSeconds(), READ_TIMEOUT.getSeconds());
+    }
+
+    private HttpClient sharedClientFor(ClientConfig config) {
+        return clients.computeIfAbsent(config.baseUri().toString(), key -> {
+            clientsCreated.incrementAndGet();
+            return new SharedClient(delegate.createClient(config));
+        });
+    }
+
+    private HttpClient.Factory countingFactory() {
+        return config -> {
+            clientsCreated.incrementAndGet();
+            return delegate.createClient(config);
+        };
+    }
+
+    /**
+     * ✅ Cliente compartido: HttpCommandExecutor llama a close() en cada quit(), aquí no cierra nada
+     */
+    private static class SharedClient implements HttpClient {
+        private final HttpClient delegate;
+
+        private SharedClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return delegate.execute(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // El cliente vive lo que la fábrica: ver GridDriverFactory.shutdown()
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.selenium.grid.test.utils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+///**
+// * ✅ MONITOR DE SALUD DEL GRID EN SEGUNDO PLANO
+// *
+// * Sustituye la comprobación de /status antes de cada test:
+// * - Un hilo daemon consulta /status cada grid.health.pollMillis con un HttpClient compartido (keep-alive)
+// * - Los tests leen el último estado sin coste de red (válido durante grid.health.ttlMillis)
+// * - Circuit breaker: tras grid.health.failureThreshold fallos seguidos se abre y los tests
+// *   fallan rápido (skip) hasta que el Hub vuelve a responder
+// * - Única fuente de topología (nodos, slots): GridSlotScheduler, el descubrimiento de navegadores
+// *   y SeleniumGridUtils.isGridAvailable leen la última instantánea en lugar de consultar /status
+// */
+public class GridHealthMonitor {
+
+    private static final long POLL_MILLIS = Long.getLong("grid.health.pollMillis", 2000);
+    private static final long TTL_MILLIS = Long.getLong("grid.health.ttlMillis", 10000);
+    private static final int FAILURE_THRESHOLD = Integer.getInteger("grid.health.failureThreshold", 3);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Map<String, GridHealthMonitor> MONITORS = new ConcurrentHashMap<>();
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+
+    private final String hubUrl;
+    private final HttpRequest statusRequest;
+    private final ReentrantLock checkLock = new ReentrantLock();
+
+    private ScheduledExecutorService poller;
+    private volatile boolean started;
+    private boolean stopped;
+    private volatile boolean available;
+    private volatile boolean circuitOpen;
+    // check() corre en el poller y, con el estado caducado, en el hilo de isAvailable()
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long lastCheckNanos;
+    private volatile String lastError = "sin comprobar";
+    private volatile GridTopology topology;
+    private volatile long topologyNanos;
+
+    public GridHealthMonitor(String hubUrl) {
+        this.hubUrl = hubUrl;
+        this.statusRequest = HttpRequest.newBuilder(URI.create(hubUrl + "/status"))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    /**
+     * ✅ Monitor compartido por Hub; la primera llamada hace una comprobación síncrona
+     * y arranca el sondeo en segundo plano. La comprobación se hace fuera de computeIfAbsent:
+     * solo esperan a la red los hilos que piden ese mismo Hub, no los que comparten bin en el mapa.
+     */
+    public static GridHealthMonitor forHub(String hubUrl) {
+        GridHealthMonitor monitor = MONITORS.computeIfAbsent(hubUrl, GridHealthMonitor::new);
+        return monitor.started ? monitor : monitor.start();
+    }
+
+    /**
+     * ✅ Detiene los monitores de todos los Hubs (fin de suite)
+     */
+    public static void stopAll() {
+        MONITORS.values().forEach(GridHealthMonitor::stop);
+        MONITORS.clear();
+    }
+
+    /**
+     * ✅ Detiene y olvida el monitor de un Hub (Hubs efímeros, p.ej. un FakeGridServer por test)
+     */
+    public static void stopHub(String hubUrl) {
+        GridHealthMonitor monitor = MONITORS.remove(hubUrl);
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    public synchronized GridHealthMonitor start() {
+        // Un monitor detenido no vuelve a arrancar: ya no está en MONITORS y su sondeo quedaría huérfano
+        if (poller == null && !stopped) {
+            check();
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "grid-health-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::check, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        started = true;
+        return this;
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    /**
+     * ✅ Último estado conocido. Si el sondeo se ha quedado atrás más del TTL,
+     * un único hilo comprueba de nuevo; el resto usa el último valor.
+     */
+    public boolean isAvailable() {
+        if (System.nanoTime() - lastCheckNanos > TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS)
+                && checkLock.tryLock()) {
+            try {
+                check();
+            } finally {
+                checkLock.unlock();
+            }
+        }
+        return available && !circuitOpen;
+    }
+
+    public boolean isCircuitOpen() {
+        return circuitOpen;
+    }
+
+    /**
+     * ✅ Última topología recibida (null si el Hub nunca respondió)
+     */
+    public GridTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * ✅ Instante (System.nanoTime) en que se recibió la última topología
+     */
+    public long getTopologyNanos() {
+        return topologyNanos;
+    }
+
+    /**
+     * ✅ Motivo legible del estado actual, para mensajes de skip
+     */
+    public String describe() {
+        if (circuitOpen) {
+            return String.format("Circuit breaker abierto tras %d fallos seguidos en %s/status: %s",
+                    consecutiveFailures.get(), hubUrl, lastError);
+        }
+        return available
+                ? "Grid disponible en " + hubUrl + (topology != null ? " | " + topology : "")
+                : "Grid no disponible en " + hubUrl + ": " + lastError;
+    }
+
+    private void check() {
+        long requestedAtNanos = System.nanoTime();
+        try {
+            HttpResponse<String> response = HTTP.send(statusRequest, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                onSuccess(GridTopology.parse(response.body()), requestedAtNanos);
+            } else {
+                onFailure("HTTP " + response.statusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            onFailure(e.getMessage() != null
+                    ? e.getClass().getSimpleName() + ": " + e.getMessage()
+                    : e.getClass().getSimpleName());
+        } finally {
+            lastCheckNanos = System.nanoTime();
+        }
+    }
+
+    private void onSuccess(GridTopology refreshed, long requestedAtNanos) {
+        topologyNanos = requestedAtNanos;
+        topology = refreshed;
+        available = true;
+        consecutiveFailures.set(0);
+        if (circuitOpen) {
+            circuitOpen = false;
+            System.out.println("✅ Grid recuperado, circuit breaker cerrado: " + hubUrl);
+        }
+    }
+
+    private void onFailure(String error) {
+        lastError = error;
+        available = false;
+        if (consecutiveFailures.incrementAndGet() >= FAILURE_THRESHOLD && !circuitOpen) {
+            circuitOpen = true;
+            System.err.println("🔌 Circuit breaker abierto para " + hubUrl + ": " + error);
+        }
+    }
+}
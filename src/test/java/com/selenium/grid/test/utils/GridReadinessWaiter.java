@@ -0,0 +1,173 @@
+package com.selenium.grid.test.utils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+///**
+// * ✅ ESPERA DE DISPONIBILIDAD DEL GRID
+// *
+// * Sustituye los sleep fijos tras docker-compose up:
+// * - Consulta /status con backoff exponencial (grid.ready.initialDelayMillis → grid.ready.maxDelayMillis)
+// * - Listo cuando ready=true, hay N nodos UP y los slots mínimos por navegador están registrados
+// * - Sale en cuanto el Grid es usable e informa del tiempo que ha tardado
+// * - Código de salida: 0 listo, 1 timeout, 2 argumentos inválidos
+// *
+// * Uso:
+// *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+// *       -Dexec.mainClass=com.selenium.grid.test.utils.GridReadinessWaiter \
+// *       -Dexec.args="--timeout 180 --nodes 2 --slots chrome=1,firefox=1"
+// */
+public class GridReadinessWaiter {
+
+    private static final long INITIAL_DELAY_MILLIS = Long.getLong("grid.ready.initialDelayMillis", 250);
+    private static final long MAX_DELAY_MILLIS = Long.getLong("grid.ready.maxDelayMillis", 5000);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final String hubUrl;
+    private final Duration timeout;
+    private final int requiredNodes;
+    private final Map<String, Integer> requiredSlots;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+
+    public GridReadinessWaiter(String hubUrl, Duration timeout, int requiredNodes, Map<String, Integer> requiredSlots) {
+        this.hubUrl = hubUrl;
+        this.timeout = timeout;
+        this.requiredNodes = requiredNodes;
+        this.requiredSlots = requiredSlots;
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) continue;
+            String key = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(key, hasValue ? args[++i] : "true");
+        }
+        if (options.containsKey("help")) {
+            printUsage();
+            return;
+        }
+
+        GridReadinessWaiter waiter;
+        try {
+            waiter = new GridReadinessWaiter(
+                    options.getOrDefault("hub", "http://localhost:4444/wd/hub"),
+                    Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "180"))),
+                    Integer.parseInt(options.getOrDefault("nodes", "1")),
+                    parseSlots(options.getOrDefault("slots", "")));
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ Argumentos inválidos: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        System.exit(waiter.await() ? 0 : 1);
+    }
+
+    /**
+     * ✅ Espera hasta que el Grid cumple los requisitos o se agota el timeout
+     */
+    public boolean await() {
+        System.out.println("⏳ Esperando al Grid en " + hubUrl + " (nodos ≥ " + requiredNodes
+                + ", slots " + requiredSlots + ", timeout " + timeout.getSeconds() + "s)");
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long delay = INITIAL_DELAY_MILLIS;
+        int attempt = 0;
+
+        while (true) {
+            attempt++;
+            String pending = pendingRequirements();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            if (pending == null) {
+                System.out.println(String.format("✅ Grid listo en %.1fs (%d comprobaciones)", elapsed, attempt));
+                return true;
+            }
+
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                System.err.println(String.format("❌ Grid no listo tras %.1fs: %s", elapsed, pending));
+                return false;
+            }
+
+            System.out.println(String.format("   ⏳ %.1fs - %s", elapsed, pending));
+            try {
+                Thread.sleep(Math.min(delay, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            delay = Math.min(delay * 2, MAX_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * ✅ Primer requisito no cumplido, o null si el Grid está listo
+     */
+    private String pendingRequirements() {
+        GridTopology topology;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(hubUrl + "/status"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return "Hub respondió HTTP " + response.statusCode();
+            }
+            topology = GridTopology.parse(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrumpido";
+        } catch (Exception e) {
+            return "Hub no responde (" + e.getClass().getSimpleName() + ")";
+        }
+
+        if (!topology.isReady()) {
+            return "Grid ready=false: " + topology.getMessage();
+        }
+
+        long nodesUp = topology.getNodes().stream().filter(GridTopology.NodeInfo::isUp).count();
+        if (nodesUp < requiredNodes) {
+            return "nodos UP " + nodesUp + "/" + requiredNodes;
+        }
+
+        for (Map.Entry<String, Integer> required : requiredSlots.entrySet()) {
+            int slots = topology.totalSlots(required.getKey());
+            if (slots < required.getValue()) {
+                return "slots " + required.getKey() + " " + slots + "/" + required.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * ✅ Interpreta "chrome=2,firefox=1" (sin número: 1 slot)
+     */
+    static Map<String, Integer> parseSlots(String value) {
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.split("=");
+            slots.put(parts[0].trim(), parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1);
+        }
+        return slots;
+    }
+
+    private static void printUsage() {
+        System.out.println("Uso: GridReadinessWaiter [opciones]");
+        System.out.println("  --hub URL            Hub del Grid (http://localhost:4444/wd/hub)");
+        System.out.println("  --timeout SEG        Tiempo máximo de espera (180)");
+        System.out.println("  --nodes N            Nodos UP necesarios (1)");
+        System.out.println("  --slots b=n,...      Slots mínimos por navegador, p. ej. chrome=1,firefox=1 (ninguno)");
+    }
+}
@@ -0,0 +1,167 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.Capabilities;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+///**
+// * ✅ PLANIFICADOR DE CONCURRENCIA SEGÚN SLOTS DEL GRID
+// *
+// * Admite ejecuciones por navegador solo cuando hay un slot libre:
+// * - Capacidad y slots ocupados tomados de la última topología de GridHealthMonitor
+// *   (sin llamadas de red mientras se tiene el lock)
+// * - Los slots ocupados por otros clientes del Hub se descuentan de la capacidad
+// * - Cuentan contra la capacidad, además de los permisos, las sesiones del pool (ociosas
+// *   y precargas) y las peticiones hedge pendientes
+// * - Un test solo entra sin coste si el pool tiene una sesión para sus mismas capabilities
+// *   (acquire con capabilities); si no, necesita un slot propio
+// * - Navegadores sin nodos se rechazan al instante
+// * - Si el Hub nunca respondió, se admiten como mucho grid.scheduler.fallbackSlots por navegador
+// */
+public class GridSlotScheduler {
+
+    private static final Duration RECHECK_INTERVAL =
+            Duration.ofMillis(Long.getLong("grid.scheduler.recheckMillis", 1000));
+    private static final int FALLBACK_SLOTS = Integer.getInteger("grid.scheduler.fallbackSlots", 1);
+    private static final Map<String, GridSlotScheduler> SCHEDULERS = new ConcurrentHashMap<>();
+
+    private final String hubUrl;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotReleased = lock.newCondition();
+    private final Map<String, Integer> inUse = new ConcurrentHashMap<>();
+
+    public GridSlotScheduler(String hubUrl) {
+        this.hubUrl = hubUrl;
+    }
+
+    /**
+     * ✅ Planificador compartido por Hub
+     */
+    public static GridSlotScheduler forHub(String hubUrl) {
+        return SCHEDULERS.computeIfAbsent(hubUrl, GridSlotScheduler::new);
+    }
+
+    /**
+     * ✅ Espera hasta que haya un slot para el navegador. Devuelve false si el Grid
+     * no puede servirlo o si se agota el timeout. Sin capabilities no se sabe qué sesión
+     * del pool tomará el test: siempre necesita un slot propio.
+     */
+    public boolean acquire(String browser, Duration timeout) throws InterruptedException {
+        return acquire(browser, null, timeout);
+    }
+
+    /**
+     * ✅ Igual que acquire(browser, timeout), pero si el pool tiene una sesión reutilizable para
+     * estas capabilities el test no necesita un slot más (la sesión ya cuenta como ocupada)
+     */
+    public boolean acquire(String browser, Capabilities capabilities, Duration timeout) throws InterruptedException {
+        String key = GridTopology.normalizeBrowser(browser);
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (true) {
+            // Instantánea del monitor, fuera del lock: ningún hilo espera a la red.
+            // El instante se lee antes: si se refresca entre medias, la estimación peca de prudente
+            GridHealthMonitor health = GridHealthMonitor.forHub(hubUrl);
+            long topologyNanos = health.getTopologyNanos();
+            GridTopology topology = health.getTopology();
+
+            lock.lock();
+            try {
+                if (topology != null && topology.totalSlots(key) == 0) {
+                    System.out.println("⛔ Grid sin slots para " + browser + " | " + topology);
+                    return false;
+                }
+                int capacity = capacity(key, topology, topologyNanos);
+
+                int running = inUse.getOrDefault(key, 0);
+                DriverSessionPool pool = DriverSessionPool.shared();
+                int held = pool.unleasedSessions(key) + SessionCreationMetrics.forHub(hubUrl).hedgesInFlight(key);
+                // Solo una sesión del pool con las mismas capabilities evita ocupar otro slot
+                boolean reusable = capabilities != null && pool.reusableSessions(browser, capabilities) > 0;
+                int needed = reusable ? 0 : 1;
+                if (running + held + needed <= capacity) {
+                    inUse.put(key, running + 1);
+                    System.out.println(String.format("🎟️ Slot asignado a %s (%d/%d en uso, %d en pool/hedge)",
+                            browser, running + 1, capacity, held));
+                    return true;
+                }
+
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    System.out.println("⏱️ Timeout esperando slot para " + browser);
+                    return false;
+                }
+                // Se vuelve a comprobar periódicamente: el pool y el Hub cambian sin avisar
+                slotReleased.awaitNanos(Math.min(remainingNanos, RECHECK_INTERVAL.toNanos()));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * ✅ Libera el slot tomado con acquire()
+     */
+    public void release(String browser) {
+        String key = GridTopology.normalizeBrowser(browser);
+
+        lock.lock();
+        try {
+            inUse.computeIfPresent(key, (k, running) -> running > 1 ? running - 1 : null);
+            slotReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * ✅ True si queda un slot libre además de los permisos y sesiones ya contados
+     * (para precargas y hedges, que no toman permiso propio)
+     */
+    public boolean hasSpareSlot(String browser) {
+        String key = GridTopology.normalizeBrowser(browser);
+        GridHealthMonitor health = GridHealthMonitor.forHub(hubUrl);
+        long topologyNanos = health.getTopologyNanos();
+        GridTopology topology = health.getTopology();
+
+        lock.lock();
+        try {
+            int held = DriverSessionPool.shared().unleasedSessions(key)
+                    + SessionCreationMetrics.forHub(hubUrl).hedgesInFlight(key);
+            return inUse.getOrDefault(key, 0) + held < capacity(key, topology, topologyNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * ✅ Slots en uso por esta suite para un navegador
+     */
+    public int inUse(String browser) {
+        return inUse.getOrDefault(GridTopology.normalizeBrowser(browser), 0);
+    }
+
+    /**
+     * Slots utilizables por esta suite: los del navegador menos los que ocupan otros clientes.
+     * Las sesiones propias en la instantánea son las de SessionRegistry creadas antes de tomarla
+     * (o, sin registro, permisos + pool + hedges); la topología puede ir hasta
+     * grid.health.pollMillis por detrás.
+     */
+    private int capacity(String key, GridTopology topology, long topologyNanos) {
+        if (topology == null) {
+            return FALLBACK_SLOTS;
+        }
+        int total = topology.totalSlots(key);
+        int busyOnHub = total - topology.freeSlots(key);
+        int ours = SessionRegistry.isEnabled()
+                ? SessionRegistry.shared().openSessions(key, topologyNanos)
+                : inUse.getOrDefault(key, 0) + DriverSessionPool.shared().unleasedSessions(key)
+                        + SessionCreationMetrics.forHub(hubUrl).hedgesInFlight(key);
+        int external = Math.max(0, busyOnHub - ours);
+        return Math.max(0, total - external);
+    }
+}
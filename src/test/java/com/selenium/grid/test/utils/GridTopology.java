@@ -0,0 +1,223 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+///**
+// * ✅ MODELO DE TOPOLOGÍA DEL GRID
+// *
+// * Construido a partir de la respuesta de /status del Hub:
+// * - Nodos registrados y su disponibilidad
+// * - Slots por nodo con su stereotype (navegador)
+// * - Slots totales y libres por navegador
+// */
+public class GridTopology {
+
+    private static final Json JSON = new Json();
+
+    private final boolean ready;
+    private final String message;
+    private final List<NodeInfo> nodes;
+
+    public GridTopology(boolean ready, String message, List<NodeInfo> nodes) {
+        this.ready = ready;
+        this.message = message;
+        this.nodes = Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * ✅ Parsea el JSON devuelto por GET {hub}/status
+     */
+    @SuppressWarnings("unchecked")
+    public static GridTopology parse(String statusJson) {
+        Map<String, Object> root = JSON.toType(statusJson, Json.MAP_TYPE);
+        Map<String, Object> value = root.containsKey("value")
+                ? (Map<String, Object>) root.get("value")
+                : root;
+
+        List<NodeInfo> nodes = new ArrayList<>();
+        Object rawNodes = value.get("nodes");
+        if (rawNodes instanceof List) {
+            for (Object rawNode : (List<Object>) rawNodes) {
+                nodes.add(NodeInfo.fromMap((Map<String, Object>) rawNode));
+            }
+        }
+
+        return new GridTopology(
+                Boolean.TRUE.equals(value.get("ready")),
+                String.valueOf(value.getOrDefault("message", "")),
+                nodes
+        );
+    }
+
+    /**
+     * ✅ Normaliza nombres de navegador ("edge" y "MicrosoftEdge" son el mismo stereotype)
+     */
+    public static String normalizeBrowser(String browser) {
+        String normalized = browser == null ? "" : browser.trim().toLowerCase();
+        return normalized.equals("edge") ? "microsoftedge" : normalized;
+    }
+
+    public boolean isReady() { return ready; }
+    public String getMessage() { return message; }
+    public List<NodeInfo> getNodes() { return nodes; }
+
+    /**
+     * ✅ Slots que el Grid puede servir en paralelo para un navegador (solo nodos UP)
+     */
+    public int totalSlots(String browser) {
+        int total = 0;
+        for (NodeInfo node : nodes) {
+            if (node.isUp()) {
+                total += node.capacityFor(browser);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * ✅ Slots libres en este momento para un navegador
+     */
+    public int freeSlots(String browser) {
+        int free = 0;
+        for (NodeInfo node : nodes) {
+            if (node.isUp()) {
+                free += node.freeSlotsFor(browser);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * ✅ Navegadores anunciados por los nodos disponibles
+     */
+    public Set<String> browsers() {
+        Set<String> browsers = new TreeSet<>();
+        for (NodeInfo node : nodes) {
+            if (node.isUp()) {
+                for (SlotInfo slot : node.getSlots()) {
+                    browsers.add(slot.getBrowserName());
+                }
+            }
+        }
+        return browsers;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder(String.format("Grid ready: %s | Nodos: %d", ready, nodes.size()));
+        for (String browser : browsers()) {
+            summary.append(String.format(" | %s: %d/%d libres", browser, freeSlots(browser), totalSlots(browser)));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * ✅ Nodo registrado en el Grid
+     */
+    public static class NodeInfo {
+        private final String id;
+        private final String uri;
+        private final String availability;
+        private final int maxSessions;
+        private final List<SlotInfo> slots;
+
+        public NodeInfo(String id, String uri, String availability, int maxSessions, List<SlotInfo> slots) {
+            this.id = id;
+            this.uri = uri;
+            this.availability = availability;
+            this.maxSessions = maxSessions;
+            this.slots = Collections.unmodifiableList(slots);
+        }
+
+        @SuppressWarnings("unchecked")
+        static NodeInfo fromMap(Map<String, Object> node) {
+            List<SlotInfo> slots = new ArrayList<>();
+            Object rawSlots = node.get("slots");
+            if (rawSlots instanceof List) {
+                for (Object rawSlot : (List<Object>) rawSlots) {
+                    Map<String, Object> slot = (Map<String, Object>) rawSlot;
+                    Map<String, Object> stereotype = slot.get("stereotype") instanceof Map
+                            ? (Map<String, Object>) slot.get("stereotype")
+                            : Collections.emptyMap();
+                    slots.add(new SlotInfo(
+                            String.valueOf(stereotype.getOrDefault("browserName", "unknown")),
+                            slot.get("session") != null
+                    ));
+                }
+            }
+
+            Object maxSessions = node.get("maxSessions");
+            return new NodeInfo(
+                    String.valueOf(node.get("id")),
+                    String.valueOf(node.get("uri")),
+                    String.valueOf(node.getOrDefault("availability", "UP")),
+                    maxSessions instanceof Number ? ((Number) maxSessions).intValue() : slots.size(),
+                    slots
+            );
+        }
+
+        public String getId() { return id; }
+        public String getUri() { return uri; }
+        public String getAvailability() { return availability; }
+        public int getMaxSessions() { return maxSessions; }
+        public List<SlotInfo> getSlots() { return slots; }
+
+        public boolean isUp() {
+            return "UP".equalsIgnoreCase(availability);
+        }
+
+        public int busySlots() {
+            int busy = 0;
+            for (SlotInfo slot : slots) {
+                if (slot.isBusy()) busy++;
+            }
+            return busy;
+        }
+
+        /**
+         * ✅ Slots del navegador limitados por maxSessions del nodo
+         */
+        public int capacityFor(String browser) {
+            int matching = 0;
+            for (SlotInfo slot : slots) {
+                if (slot.matches(browser)) matching++;
+            }
+            return Math.min(matching, maxSessions);
+        }
+
+        public int freeSlotsFor(String browser) {
+            int free = 0;
+            for (SlotInfo slot : slots) {
+                if (slot.matches(browser) && !slot.isBusy()) free++;
+            }
+            return Math.max(0, Math.min(free, maxSessions - busySlots()));
+        }
+    }
+
+    /**
+     * ✅ Slot de un nodo (stereotype + si tiene sesión activa)
+     */
+    public static class SlotInfo {
+        private final String browserName;
+        private final boolean busy;
+
+        public SlotInfo(String browserName, boolean busy) {
+            this.browserName = browserName;
+            this.busy = busy;
+        }
+
+        public String getBrowserName() { return browserName; }
+        public boolean isBusy() { return busy; }
+
+        public boolean matches(String browser) {
+            return normalizeBrowser(browserName).equals(normalizeBrowser(browser));
+        }
+    }
+}
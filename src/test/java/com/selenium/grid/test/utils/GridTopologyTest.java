@@ -0,0 +1,69 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+
+///**
+// * ✅ TESTS UNITARIOS: PARSEO DE /status Y CÁLCULO DE SLOTS
+// */
+public class GridTopologyTest {
+
+    private static final String STATUS = "{\"value\": {\"ready\": true, \"message\": \"Selenium Grid ready.\", \"nodes\": ["
+            + "{\"id\": \"node-1\", \"uri\": \"http://node-1:5555\", \"availability\": \"UP\", \"maxSessions\": 2, \"slots\": ["
+            + "  {\"stereotype\": {\"browserName\": \"chrome\"}, \"session\": {\"sessionId\": \"s1\"}},"
+            + "  {\"stereotype\": {\"browserName\": \"chrome\"}, \"session\": null},"
+            + "  {\"stereotype\": {\"browserName\": \"MicrosoftEdge\"}, \"session\": null}]},"
+            + "{\"id\": \"node-2\", \"uri\": \"http://node-2:5555\", \"availability\": \"DOWN\", \"maxSessions\": 1, \"slots\": ["
+            + "  {\"stereotype\": {\"browserName\": \"firefox\"}, \"session\": null}]}"
+            + "]}}";
+
+    @Test
+    public void parsesReadinessAndNodes() {
+        GridTopology topology = GridTopology.parse(STATUS);
+
+        Assert.assertTrue(topology.isReady());
+        Assert.assertEquals(topology.getMessage(), "Selenium Grid ready.");
+        Assert.assertEquals(topology.getNodes().size(), 2);
+        Assert.assertEquals(topology.getNodes().get(0).busySlots(), 1);
+        Assert.assertEquals(topology.browsers(), Set.of("chrome", "MicrosoftEdge"), "Solo navegadores de nodos UP");
+    }
+
+    @Test
+    public void slotsAreLimitedByMaxSessionsOfTheNode() {
+        GridTopology topology = GridTopology.parse(STATUS);
+
+        Assert.assertEquals(topology.totalSlots("chrome"), 2);
+        Assert.assertEquals(topology.freeSlots("chrome"), 1);
+        // Un slot de edge libre, pero el nodo solo admite 2 sesiones y ya tiene 1
+        Assert.assertEquals(topology.totalSlots("edge"), 1);
+        Assert.assertEquals(topology.freeSlots("edge"), 1);
+    }
+
+    @Test
+    public void nodesThatAreDownDoNotCount() {
+        GridTopology topology = GridTopology.parse(STATUS);
+
+        Assert.assertEquals(topology.totalSlots("firefox"), 0);
+        Assert.assertEquals(topology.freeSlots("firefox"), 0);
+    }
+
+    @Test
+    public void busyNodeLeavesNoFreeSlotsForOtherBrowsers() {
+        GridTopology topology = GridTopology.parse("{\"ready\": true, \"nodes\": [{\"id\": \"n\", \"maxSessions\": 1, \"slots\": ["
+                + "{\"stereotype\": {\"browserName\": \"chrome\"}, \"session\": {}},"
+                + "{\"stereotype\": {\"browserName\": \"firefox\"}, \"session\": null}]}]}");
+
+        // Sin envoltorio "value" y sin availability: se asume UP
+        Assert.assertEquals(topology.totalSlots("firefox"), 1);
+        Assert.assertEquals(topology.freeSlots("firefox"), 0);
+    }
+
+    @Test
+    public void normalizesEdgeAliases() {
+        Assert.assertEquals(GridTopology.normalizeBrowser(" Edge "), "microsoftedge");
+        Assert.assertEquals(GridTopology.normalizeBrowser("MicrosoftEdge"), "microsoftedge");
+        Assert.assertEquals(GridTopology.normalizeBrowser(null), "");
+    }
+}
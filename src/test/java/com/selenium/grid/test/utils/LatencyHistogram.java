@@ -0,0 +1,86 @@
+package com.selenium.grid.test.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+///**
+// * ✅ HISTOGRAMA DE LATENCIAS DE BAJA ASIGNACIÓN
+// *
+// * Buckets log-lineales fijos en microsegundos (estilo HdrHistogram):
+// * - 16 sub-buckets por potencia de 2 → error relativo máximo ~6%
+// * - record() no asigna memoria: solo incrementos atómicos sobre un array fijo
+// * - Seguro para varios hilos sin locks
+// * - Percentiles (p50/p95/p99) calculados al final recorriendo los buckets
+// */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * ✅ Registra una latencia medida con System.nanoTime()
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(bucketIndex(micros));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public double getMeanMillis() {
+        long count = totalCount.get();
+        return count == 0 ? 0.0 : totalMicros.get() / (double) count / 1_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1_000.0;
+    }
+
+    /**
+     * ✅ Percentil aproximado (0-100) en milisegundos; punto medio del bucket
+     */
+    public double getPercentileMillis(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) return 0.0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= rank) {
+                return Math.min(bucketMidpoint(i), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketMidpoint(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+///**
+// * ✅ TESTS UNITARIOS: PERCENTILES DEL HISTOGRAMA DE LATENCIAS (error relativo ≤ 1/16)
+// */
+public class LatencyHistogramTest {
+
+    private static final double MAX_RELATIVE_ERROR = 1.0 / 16;
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getPercentileMillis(95), 0.0);
+        Assert.assertEquals(histogram.getMeanMillis(), 0.0);
+    }
+
+    @Test
+    public void percentilesOfAUniformSeriesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.recordNanos(millis * 1_000_000L);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        assertClose(histogram.getPercentileMillis(50), 50);
+        assertClose(histogram.getPercentileMillis(95), 95);
+        assertClose(histogram.getPercentileMillis(99), 99);
+        Assert.assertEquals(histogram.getMaxMillis(), 100.0);
+        Assert.assertEquals(histogram.getMeanMillis(), 50.5, 1e-9);
+    }
+
+    @Test
+    public void percentileNeverExceedsTheRecordedMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(3_000_000L);
+
+        Assert.assertTrue(histogram.getPercentileMillis(99) <= 3.0);
+        assertClose(histogram.getPercentileMillis(99), 3);
+    }
+
+    @Test
+    public void bucketMidpointFallsInsideItsOwnBucket() {
+        for (long micros : new long[]{0, 1, 15, 16, 17, 100, 1_000, 123_456, 10_000_000, Long.MAX_VALUE / 2}) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            Assert.assertEquals(LatencyHistogram.bucketIndex(LatencyHistogram.bucketMidpoint(index)), index,
+                    "Punto medio fuera del bucket de " + micros + "µs");
+        }
+        // Por debajo de 16µs cada microsegundo tiene su bucket
+        Assert.assertEquals(LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex(7)), 7);
+    }
+
+    private static void assertClose(double actual, double expected) {
+        Assert.assertEquals(actual, expected, expected * MAX_RELATIVE_ERROR,
+                "Percentil fuera del error de bucket");
+    }
+}
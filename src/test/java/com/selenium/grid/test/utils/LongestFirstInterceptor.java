@@ -0,0 +1,90 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlClass;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+///**
+// * ✅ ORDEN LONGEST-FIRST CON AFINIDAD DE NAVEGADOR
+// *
+// * IMethodInterceptor que reordena los métodos de cada <test> usando TestDurationHistory:
+// * - Agrupa los métodos por navegador (parámetro "browser" de la clase o del <test>)
+// *   para que tests consecutivos reutilicen la misma sesión del DriverSessionPool
+// * - Los grupos más largos primero y, dentro de cada grupo, los métodos más largos primero
+// * - En ejecuciones paralelas los tests largos arrancan pronto y no alargan la cola final
+// * - Reescribe la prioridad de cada método (TestNG reordena por priority tras los interceptores)
+// * - Desactivable con -Dgrid.order=none (se respetan priority/preserve-order originales)
+// */
+public class LongestFirstInterceptor implements IMethodInterceptor {
+
+    private static final String ORDER = System.getProperty("grid.order", "longest");
+    // Métodos sin navegador fijo (DataProvider, clases sin parámetro): grupo propio
+    private static final String ANY_BROWSER = "*";
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!"longest".equalsIgnoreCase(ORDER) || methods.size() < 2) {
+            return methods;
+        }
+
+        TestDurationHistory history = TestDurationHistory.shared();
+        Map<IMethodInstance, Double> estimates = new HashMap<>();
+        Map<String, List<IMethodInstance>> groups = new LinkedHashMap<>();
+        Map<String, Double> groupTotals = new HashMap<>();
+
+        for (IMethodInstance method : methods) {
+            double seconds = history.estimateSeconds(TestDurationHistory.keyOf(method.getMethod()));
+            String browser = browserOf(method.getMethod());
+            estimates.put(method, seconds);
+            groups.computeIfAbsent(browser, b -> new ArrayList<>()).add(method);
+            groupTotals.merge(browser, seconds, Double::sum);
+        }
+
+        // Ordenaciones estables: a igual duración se conserva el orden original
+        List<String> browsers = new ArrayList<>(groups.keySet());
+        browsers.sort(Comparator.comparingDouble((String browser) -> groupTotals.get(browser)).reversed());
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        for (String browser : browsers) {
+            List<IMethodInstance> group = groups.get(browser);
+            group.sort(Comparator.comparingDouble((IMethodInstance method) -> estimates.get(method)).reversed());
+            ordered.addAll(group);
+        }
+
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.get(i).getMethod().setPriority(i);
+        }
+
+        System.out.println(String.format("🔀 Orden longest-first [%s]: %d métodos en %d grupos de navegador %s",
+                context.getName(), ordered.size(), browsers.size(), browsers));
+        return ordered;
+    }
+
+    /**
+     * ✅ Navegador del método: parámetro "browser" de la clase, luego del &lt;test&gt;
+     */
+    static String browserOf(ITestNGMethod method) {
+        if (method.isDataDriven()) {
+            return ANY_BROWSER;
+        }
+
+        String browser = null;
+        XmlClass xmlClass = method.getTestClass().getXmlClass();
+        if (xmlClass != null) {
+            browser = xmlClass.getAllParameters().get("browser");
+        }
+        if (browser == null && method.getXmlTest() != null) {
+            browser = method.getXmlTest().getAllParameters().get("browser");
+        }
+        return browser == null ? ANY_BROWSER : GridTopology.normalizeBrowser(browser);
+    }
+}
@@ -0,0 +1,164 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+///**
+// * ✅ LOCALIZADOR MULTI-SELECTOR CON UNA SOLA ESPERA
+// *
+// * Sustituye los bucles "un wait.until() por selector":
+// * - Todos los selectores se evalúan en un único executeScript por sondeo
+// * - El peor caso es un solo timeout, no N
+// * - Devuelve el elemento y el selector que ganó
+// * - Selectores CSS inválidos (p.ej. :contains) se ignoran sin error
+// * - findFirstVisible respeta el orden del llamador: si varios selectores encuentran elementos
+// *   distintos, gana siempre el primero de la lista
+// * - findAnyVisible es para alternativas del MISMO elemento (cualquiera vale): ahí el ganador
+// *   histórico (SelectorRankingCache) se evalúa primero
+// */
+public class MultiSelectorLocator {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+    private static final String FIND_FIRST_SCRIPT =
+            "var selectors = arguments[0], requireVisible = arguments[1];" +
+            "for (var i = 0; i < selectors.length; i++) {" +
+            "  var nodes;" +
+            "  try { nodes = document.querySelectorAll(selectors[i]); } catch (e) { continue; }" +
+            "  for (var j = 0; j < nodes.length; j++) {" +
+            "    var el = nodes[j];" +
+            "    if (!requireVisible) return [el, i];" +
+            "    var style = window.getComputedStyle(el);" +
+            "    var rect = el.getBoundingClientRect();" +
+            "    if (style.display !== 'none' && style.visibility !== 'hidden' && style.opacity !== '0'" +
+            "        && rect.width > 0 && rect.height > 0 && !el.disabled) return [el, i];" +
+            "  }" +
+            "}" +
+            "return null;";
+
+    /**
+     * ✅ Espera (una sola vez) al primer selector, en el orden dado, con un elemento visible.
+     * Devuelve null si ninguno aparece antes del timeout.
+     */
+    public static Match findFirstVisible(WebDriver driver, Duration timeout, String... selectors) {
+        return findFirst(driver, timeout, true, false, selectors);
+    }
+
+    /**
+     * ✅ Para selectores equivalentes (alternativas del mismo elemento): devuelve el elemento visible
+     * de cualquiera de ellos, probando primero el que ganó en ejecuciones anteriores.
+     * No usar con listas cuyos selectores puedan encontrar elementos distintos.
+     */
+    public static Match findAnyVisible(WebDriver driver, Duration timeout, String... selectors) {
+        return findFirst(driver, timeout, true, true, selectors);
+    }
+
+    /**
+     * ✅ Igual que findFirstVisible pero aceptando elementos presentes aunque no visibles
+     */
+    public static Match findFirstPresent(WebDriver driver, Duration timeout, String... selectors) {
+        return findFirst(driver, timeout, false, false, selectors);
+    }
+
+    private static Match findFirst(WebDriver driver, Duration timeout, boolean requireVisible,
+                                   boolean equivalent, String... selectors) {
+        SelectorRankingCache cache = SelectorRankingCache.shared();
+        // Reordenar solo es seguro si cualquier selector de la lista devuelve el mismo elemento
+        String rankingKey = equivalent && SelectorRankingCache.isEnabled()
+                ? SelectorRankingCache.keyFor(browserName(driver), selectors)
+                : null;
+        List<String> candidates = Arrays.asList(
+                rankingKey != null ? cache.rank(rankingKey, selectors) : selectors);
+
+        WebDriverWait wait = new WebDriverWait(driver, timeout, POLL_INTERVAL);
+        wait.ignoring(JavascriptException.class);
+        wait.ignoring(StaleElementReferenceException.class);
+
+        Match match;
+        try {
+            match = wait.until(d -> probe(d, candidates, requireVisible));
+        } catch (TimeoutException e) {
+            return null;
+        }
+
+        if (rankingKey != null) {
+            cache.recordSuccess(rankingKey, match.getSelector());
+        }
+        // El índice se reporta respecto a la lista original del llamador
+        return new Match(match.getElement(), match.getSelector(),
+                Arrays.asList(selectors).indexOf(match.getSelector()));
+    }
+
+    private static String browserName(WebDriver driver) {
+        if (driver instanceof HasCapabilities) {
+            return ((HasCapabilities) driver).getCapabilities().getBrowserName();
+        }
+        return "local";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Match probe(WebDriver driver, List<String> selectors, boolean requireVisible) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return probeWithFindElements(driver, selectors, requireVisible);
+        }
+
+        Object result = ((JavascriptExecutor) driver).executeScript(FIND_FIRST_SCRIPT, selectors, requireVisible);
+        if (!(result instanceof List) || ((List<Object>) result).size() < 2) {
+            return null;
+        }
+
+        List<Object> match = (List<Object>) result;
+        int index = ((Number) match.get(1)).intValue();
+        return new Match((WebElement) match.get(0), selectors.get(index), index);
+    }
+
+    private static Match probeWithFindElements(WebDriver driver, List<String> selectors, boolean requireVisible) {
+        for (int i = 0; i < selectors.size(); i++) {
+            try {
+                for (WebElement element : driver.findElements(By.cssSelector(selectors.get(i)))) {
+                    if (!requireVisible || element.isDisplayed()) {
+                        return new Match(element, selectors.get(i), i);
+                    }
+                }
+            } catch (Exception e) {
+                // Selector inválido o elemento obsoleto: probar el siguiente
+            }
+        }
+        return null;
+    }
+
+    /**
+     * ✅ Resultado: elemento encontrado y selector ganador
+     */
+    public static class Match {
+        private final WebElement element;
+        private final String selector;
+        private final int index;
+
+        public Match(WebElement element, String selector, int index) {
+            this.element = element;
+            this.selector = selector;
+            this.index = index;
+        }
+
+        public WebElement getElement() { return element; }
+        public String getSelector() { return selector; }
+        public int getIndex() { return index; }
+
+        @Override
+        public String toString() {
+            return String.format("selector #%d '%s'", index + 1, selector);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+///**
+// * ✅ MOTOR DE REINTENTOS UNIFICADO
+// *
+// * Un único criterio de reintento para utilidades y tests:
+// * - Clasifica el fallo (sesión no creada, timeout, elemento obsoleto/ausente, Grid caído, aserción...)
+// * - Solo reintenta los fallos transitorios; aserciones y errores desconocidos fallan a la primera
+// * - Backoff exponencial con jitter (mitad fija + mitad aleatoria), limitado a grid.retry.maxDelayMillis
+// * - Presupuesto global de reintentos por suite (grid.retry.budget): con un Grid degradado
+// *   los reintentos no multiplican la duración de la suite
+// */
+public class RetryEngine {
+
+    private static final int BUDGET = Integer.getInteger("grid.retry.budget", 30);
+    private static final long MAX_DELAY_MILLIS = Long.getLong("grid.retry.maxDelayMillis", 10000);
+
+    private static final RetryEngine SHARED = new RetryEngine(BUDGET);
+
+    /**
+     * ✅ Tipos de fallo reconocidos
+     */
+    public enum FailureKind {
+        SESSION_NOT_CREATED(true),
+        TIMEOUT(true),
+        STALE_ELEMENT(true),
+        ELEMENT_NOT_READY(true),
+        GRID_UNREACHABLE(true),
+        SESSION_LOST(false),
+        ASSERTION(false),
+        OTHER(false);
+
+        private final boolean transientFailure;
+
+        FailureKind(boolean transientFailure) {
+            this.transientFailure = transientFailure;
+        }
+
+        public boolean isTransient() {
+            return transientFailure;
+        }
+    }
+
+    private final int budget;
+    private final AtomicInteger remainingBudget;
+    private final Map<FailureKind, AtomicLong> retriesByKind = new EnumMap<>(FailureKind.class);
+    private final AtomicLong budgetDenials = new AtomicLong();
+    private final AtomicLong permanentFailures = new AtomicLong();
+
+    public RetryEngine(int budget) {
+        this.budget = budget;
+        this.remainingBudget = new AtomicInteger(budget);
+        for (FailureKind kind : FailureKind.values()) {
+            retriesByKind.put(kind, new AtomicLong());
+        }
+    }
+
+    public static RetryEngine shared() {
+        return SHARED;
+    }
+
+    /**
+     * ✅ Clasifica un fallo recorriendo la cadena de causas
+     */
+    public static FailureKind classify(Throwable failure) {
+        for (Throwable current = failure; current != null; current = current.getCause()) {
+            if (current instanceof AssertionError) return FailureKind.ASSERTION;
+            if (current instanceof SessionNotCreatedException) return FailureKind.SESSION_NOT_CREATED;
+            if (current instanceof NoSuchSessionException) return FailureKind.SESSION_LOST;
+            if (current instanceof StaleElementReferenceException) return FailureKind.STALE_ELEMENT;
+            if (current instanceof NoSuchElementException
+                    || current instanceof ElementNotInteractableException
+                    || current instanceof ElementClickInterceptedException) {
+                return FailureKind.ELEMENT_NOT_READY;
+            }
+            if (current instanceof TimeoutException
+                    || current instanceof SocketTimeoutException
+                    || current instanceof HttpTimeoutException) {
+                return FailureKind.TIMEOUT;
+            }
+            if (current instanceof UnreachableBrowserException || current instanceof ConnectException) {
+                return FailureKind.GRID_UNREACHABLE;
+            }
+        }
+        return FailureKind.OTHER;
+    }
+
+    /**
+     * ✅ Ejecuta la operación reintentando solo fallos transitorios.
+     * Los fallos permanentes o sin presupuesto se relanzan tal cual.
+     */
+    public <T> T execute(String operation, int maxAttempts, Duration initialDelay, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException | AssertionError failure) {
+                if (!shouldRetry(operation, failure, attempt, maxAttempts)) {
+                    throw failure;
+                }
+                if (!sleep(backoff(attempt, initialDelay))) {
+                    throw failure;
+                }
+            }
+        }
+    }
+
+    public void run(String operation, int maxAttempts, Duration initialDelay, Runnable action) {
+        execute(operation, maxAttempts, initialDelay, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * ✅ Decide si un intento fallido se reintenta y consume presupuesto si es así.
+     * Para bucles propios que necesitan hacer algo entre intentos (screenshots, limpieza).
+     */
+    public boolean shouldRetry(String operation, Throwable failure, int attempt, int maxAttempts) {
+        return shouldRetry(operation, failure, attempt, maxAttempts, false);
+    }
+
+    /**
+     * ✅ Igual que shouldRetry, pero con retryAssertions=true las aserciones cuentan como transitorias
+     * (verificaciones de contenido que tarda en aparecer: resultados de búsqueda, imágenes)
+     */
+    public boolean shouldRetry(String operation, Throwable failure, int attempt, int maxAttempts,
+                               boolean retryAssertions) {
+        FailureKind kind = classify(failure);
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        if (!kind.isTransient() && !(retryAssertions && kind == FailureKind.ASSERTION)) {
+            permanentFailures.incrementAndGet();
+            System.out.println("⛔ " + operation + ": fallo " + kind + " no reintentable (" + summary(failure) + ")");
+            return false;
+        }
+        if (remainingBudget.getAndUpdate(remaining -> Math.max(0, remaining - 1)) <= 0) {
+            budgetDenials.incrementAndGet();
+            System.out.println("🪫 " + operation + ": presupuesto global de reintentos agotado, no se reintenta " + kind);
+            return false;
+        }
+
+        retriesByKind.get(kind).incrementAndGet();
+        System.out.println("⚠️ " + operation + ": intento " + attempt + " falló (" + kind + "): " + summary(failure));
+        return true;
+    }
+
+    /**
+     * ✅ Espera antes del siguiente intento: initialDelay * 2^(attempt-1) con jitter
+     */
+    public Duration backoff(int attempt, Duration initialDelay) {
+        long base = initialDelay.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(Math.max(0, base), MAX_DELAY_MILLIS);
+        if (capped == 0) {
+            return Duration.ZERO;
+        }
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(capped - half + 1));
+    }
+
+    public int getRemainingBudget() {
+        return remainingBudget.get();
+    }
+
+    public String getMetrics() {
+        StringBuilder retries = new StringBuilder();
+        retriesByKind.forEach((kind, count) -> {
+            if (count.get() > 0) {
+                retries.append(retries.length() == 0 ? "" : ", ").append(kind).append('=').append(count.get());
+            }
+        });
+        return String.format("Reintentos: [%s] | no reintentables: %d | denegados por presupuesto: %d | presupuesto restante: %d/%d",
+                retries, permanentFailures.get(), budgetDenials.get(), remainingBudget.get(), budget);
+    }
+
+    // Los mensajes de Selenium incluyen build/system info en varias líneas: solo la primera
+    private static String summary(Throwable failure) {
+        String message = String.valueOf(failure.getMessage());
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+
+    private static boolean sleep(Duration delay) {
+        if (delay.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(delay.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+///**
+// * ✅ PROCESADO OPCIONAL DE SCREENSHOTS
+// *
+// * Activado con -Dgrid.screenshots.optimize=true:
+// * - Hash SHA-256 para descartar un screenshot idéntico al anterior del mismo test (p.ej. reintentos
+// *   consecutivos); tests distintos con la misma pantalla conservan cada uno su adjunto
+// * - Reescalado a grid.screenshots.maxWidth con ImageIO
+// * - Re-codificación a grid.screenshots.format (jpg/png) con grid.screenshots.quality
+// * - Métricas de bytes ahorrados por ejecución
+// */
+public class ScreenshotProcessor {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("grid.screenshots.optimize", "false"));
+    private static final int MAX_WIDTH = Integer.getInteger("grid.screenshots.maxWidth", 1280);
+    private static final String FORMAT =
+            System.getProperty("grid.screenshots.format", "jpg").toLowerCase();
+    private static final float QUALITY =
+            Float.parseFloat(System.getProperty("grid.screenshots.quality", "0.8"));
+
+    private static final ScreenshotProcessor SHARED = new ScreenshotProcessor();
+
+    // Último screenshot adjuntado {hash, nombre}: en el TestScope del test, que se vacía al cerrarlo
+    private static final TestScope.Key<String[]> LAST_SCREENSHOT = new TestScope.Key<>("lastScreenshot");
+
+    // Sin TestScope (clases sin contexto, benchmarks): solo el último del hilo {test, hash, nombre}
+    private final ThreadLocal<String[]> lastOutsideScope = new ThreadLocal<>();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong originalBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    public static ScreenshotProcessor shared() {
+        return SHARED;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public String getMimeType() {
+        return FORMAT.equals("png") ? "image/png" : "image/jpeg";
+    }
+
+    public String getExtension() {
+        return FORMAT.equals("png") ? "png" : "jpg";
+    }
+
+    /**
+     * ✅ Si el screenshot es idéntico al último que adjuntó el mismo test, devuelve el nombre
+     * de aquel; si no, null. Se calcula sobre el base64 sin decodificar (mismo contenido = mismo base64).
+     */
+    public String findDuplicate(String attachmentName, String base64Png) {
+        String hash = sha256(base64Png);
+        TestScope scope = TestScope.current();
+        if (scope != null) {
+            String[] previous = scope.get(LAST_SCREENSHOT);
+            if (previous != null && previous[0].equals(hash)) {
+                return countDuplicate(base64Png, previous[1]);
+            }
+            scope.set(LAST_SCREENSHOT, new String[]{hash, attachmentName});
+            return null;
+        }
+
+        String testKey = currentTestKey();
+        String[] previous = lastOutsideScope.get();
+        if (previous != null && previous[0].equals(testKey) && previous[1].equals(hash)) {
+            return countDuplicate(base64Png, previous[2]);
+        }
+        lastOutsideScope.set(new String[]{testKey, hash, attachmentName});
+        return null;
+    }
+
+    private String countDuplicate(String base64Png, String duplicateOf) {
+        duplicates.incrementAndGet();
+        originalBytes.addAndGet(decodedLength(base64Png));
+        return duplicateOf;
+    }
+
+    /**
+     * Test en ejecución en este hilo (clase + método + parámetros); fuera de TestNG cada hilo es su propio ámbito
+     */
+    private static String currentTestKey() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result == null || result.getMethod() == null) {
+            return "thread:" + Thread.currentThread().getName();
+        }
+        return result.getMethod().getQualifiedName() + Arrays.deepToString(result.getParameters());
+    }
+
+    /**
+     * ✅ Decodifica, reescala y re-codifica un screenshot PNG
+     */
+    public byte[] process(byte[] png) throws IOException {
+        originalBytes.addAndGet(png.length);
+        processed.incrementAndGet();
+
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            // Formato no reconocido: se guarda tal cual
+            storedBytes.addAndGet(png.length);
+            return png;
+        }
+
+        BufferedImage scaled = downscale(source);
+        byte[] encoded = encode(scaled);
+        storedBytes.addAndGet(encoded.length);
+        return encoded;
+    }
+
+    /**
+     * ✅ Resumen de la ejecución
+     */
+    public String getMetrics() {
+        long original = originalBytes.get();
+        long stored = storedBytes.get();
+        long saved = original - stored;
+        return String.format(
+                "Screenshots procesados: %d | duplicados descartados: %d | bytes: %d → %d | ahorro: %d bytes (%.1f%%)",
+                processed.get(), duplicates.get(), original, stored, saved,
+                original == 0 ? 0.0 : saved * 100.0 / original);
+    }
+
+    private BufferedImage downscale(BufferedImage source) {
+        boolean needsResize = source.getWidth() > MAX_WIDTH;
+        // JPEG no admite canal alfa: se convierte a RGB aunque no haya que reescalar
+        boolean needsRgb = !FORMAT.equals("png") && source.getType() != BufferedImage.TYPE_INT_RGB;
+        if (!needsResize && !needsRgb) {
+            return source;
+        }
+
+        int width = needsResize ? MAX_WIDTH : source.getWidth();
+        int height = needsResize
+                ? (int) Math.round(source.getHeight() * (MAX_WIDTH / (double) source.getWidth()))
+                : source.getHeight();
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        if (FORMAT.equals("png")) {
+            ImageIO.write(image, "png", output);
+            return output.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam params = writer.getDefaultWriteParam();
+            params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            params.setCompressionQuality(QUALITY);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private static long decodedLength(String base64) {
+        long padding = base64.endsWith("==") ? 2 : base64.endsWith("=") ? 1 : 0;
+        return base64.length() / 4 * 3 - padding;
+    }
+
+    private static String sha256(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.US_ASCII));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+///**
+// * ✅ CACHÉ ADAPTATIVA DE SELECTORES
+// *
+// * Aprende qué selector de una lista de fallbacks funciona en cada navegador:
+// * - El ganador histórico se prueba primero en la siguiente ejecución
+// * - Persistida entre ejecuciones en selector-cache.json (raíz del proyecto, como test-durations.json:
+// *   mvn clean no la borra y CI la guarda en caché)
+// * - Solo la usa MultiSelectorLocator.findAnyVisible (selectores equivalentes del mismo elemento)
+// * - Los ganadores antiguos pierden peso (vida media grid.selectorCache.halfLifeDays)
+// * - Desactivable con -Dgrid.selectorCache.enabled=false
+// */
+public class SelectorRankingCache {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("grid.selectorCache.enabled", "true"));
+    private static final Path CACHE_FILE =
+            Paths.get(System.getProperty("grid.selectorCache.file", "selector-cache.json"));
+    private static final double HALF_LIFE_DAYS =
+            Double.parseDouble(System.getProperty("grid.selectorCache.halfLifeDays", "7"));
+    private static final double COMPETITOR_DECAY = 0.8;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final Pattern CURRENT_KEY = Pattern.compile("[^|]+\\|[0-9a-f]{64}");
+
+    private static final Json JSON = new Json();
+    private static final SelectorRankingCache SHARED = new SelectorRankingCache(CACHE_FILE);
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(SHARED::save, "selector-cache-save"));
+        }
+    }
+
+    private final Path file;
+    private final Map<String, Map<String, Entry>> rankings = new HashMap<>();
+    private boolean loaded;
+    private boolean dirty;
+
+    public SelectorRankingCache(Path file) {
+        this.file = file;
+    }
+
+    public static SelectorRankingCache shared() {
+        return SHARED;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * ✅ Clave de ranking: navegador + SHA-256 de la lista de selectores en orden
+     * (cada lista de fallbacks identifica un elemento concreto de una página; con el hash
+     * completo dos listas distintas no comparten ranking por colisión)
+     */
+    public static String keyFor(String browser, String... selectors) {
+        return GridTopology.normalizeBrowser(browser) + "|" + sha256(String.join("\n", selectors));
+    }
+
+    private static String sha256(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * ✅ Devuelve los selectores ordenados por puntuación (desempate: orden original)
+     */
+    public synchronized String[] rank(String key, String... selectors) {
+        loadIfNeeded();
+        Map<String, Entry> entries = rankings.get(key);
+        if (entries == null || entries.isEmpty()) {
+            return selectors;
+        }
+
+        long now = System.currentTimeMillis();
+        List<String> ordered = new ArrayList<>(Arrays.asList(selectors));
+        ordered.sort(Comparator.comparingDouble((String selector) -> {
+            Entry entry = entries.get(selector);
+            return entry == null ? 0.0 : entry.effectiveScore(now);
+        }).reversed());
+        return ordered.toArray(new String[0]);
+    }
+
+    /**
+     * ✅ Registra el selector ganador; el resto de la lista pierde peso
+     */
+    public synchronized void recordSuccess(String key, String selector) {
+        loadIfNeeded();
+        long now = System.currentTimeMillis();
+        Map<String, Entry> entries = rankings.computeIfAbsent(key, k -> new TreeMap<>());
+
+        for (Map.Entry<String, Entry> competitor : entries.entrySet()) {
+            if (!competitor.getKey().equals(selector)) {
+                competitor.getValue().score *= COMPETITOR_DECAY;
+            }
+        }
+
+        Entry winner = entries.computeIfAbsent(selector, s -> new Entry(0, now));
+        winner.score = winner.effectiveScore(now) + 1;
+        winner.lastSuccess = now;
+        dirty = true;
+    }
+
+    /**
+     * ✅ Escribe la caché a disco (escritura atómica vía fichero temporal)
+     */
+    public synchronized void save() {
+        if (!dirty) return;
+
+        Map<String, Map<String, Map<String, Object>>> snapshot = new TreeMap<>();
+        rankings.forEach((key, entries) -> {
+            Map<String, Map<String, Object>> serialized = new TreeMap<>();
+            entries.forEach((selector, entry) -> {
+                Map<String, Object> values = new TreeMap<>();
+                values.put("score", entry.score);
+                values.put("lastSuccess", entry.lastSuccess);
+                serialized.put(selector, values);
+            });
+            snapshot.put(key, serialized);
+        });
+
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "selector-cache", ".tmp");
+            Files.write(temp, JSON.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("⚠️ No se pudo guardar la caché de selectores: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadIfNeeded() {
+        if (loaded) return;
+        loaded = true;
+
+        if (!Files.isRegularFile(file)) return;
+
+        try {
+            String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            Map<String, Object> stored = JSON.toType(content, Json.MAP_TYPE);
+            stored.forEach((key, rawEntries) -> {
+                // Claves con el hash corto anterior: se descartan y el fichero se reescribe sin ellas
+                if (!CURRENT_KEY.matcher(key).matches()) {
+                    dirty = true;
+                    return;
+                }
+                Map<String, Entry> entries = new TreeMap<>();
+                ((Map<String, Object>) rawEntries).forEach((selector, rawValues) -> {
+                    Map<String, Object> values = (Map<String, Object>) rawValues;
+                    entries.put(selector, new Entry(
+                            ((Number) values.get("score")).doubleValue(),
+                            ((Number) values.get("lastSuccess")).longValue()));
+                });
+                rankings.put(key, entries);
+            });
+            System.out.println("🧠 Caché de selectores cargada: " + rankings.size() + " listas");
+        } catch (Exception e) {
+            System.err.println("⚠️ Caché de selectores ignorada (" + file + "): " + e.getMessage());
+            rankings.clear();
+        }
+    }
+
+    private static class Entry {
+        private double score;
+        private long lastSuccess;
+
+        private Entry(double score, long lastSuccess) {
+            this.score = score;
+            this.lastSuccess = lastSuccess;
+        }
+
+        private double effectiveScore(long now) {
+            double ageDays = Math.max(0, now - lastSuccess) / (double) MILLIS_PER_DAY;
+            return score * Math.pow(0.5, ageDays / HALF_LIFE_DAYS);
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.selenium.grid.test.utils;
 
-import io.qameta.allure.Allure;
 import org.openqa.selenium.*;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.io.ByteArrayInputStream;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -28,17 +26,16 @@ public class SeleniumGridUtils {
             DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
 
     /**
-     * ✅ Toma screenshot y lo adjunta a Allure
+     * ✅ Toma screenshot y lo adjunta a Allure (escritura a disco en segundo plano)
      */
     public static void takeScreenshot(WebDriver driver, String stepName) {
         try {
             if (driver instanceof TakesScreenshot) {
-                byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                String screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
                 String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
                 String attachmentName = String.format("%s_%s", stepName, timestamp);
 
-                Allure.addAttachment(attachmentName, "image/png",
-                        new ByteArrayInputStream(screenshot), "png");
+                ArtifactPipeline.shared().attachBase64Png(attachmentName, screenshot);
 
                 System.out.println("📸 Screenshot tomado: " + attachmentName);
             }
@@ -131,30 +128,15 @@ public class SeleniumGridUtils {
     }
 
     /**
-     * ✅ Validación de conectividad con el Grid
+     * ✅ Validación de conectividad con el Grid (estado de GridHealthMonitor, sin consultar /status de nuevo)
      */
     public static boolean isGridAvailable(String hubUrl) {
-        try {
-            // Implementar ping al Grid Hub
-            java.net.URL url = new java.net.URL(hubUrl + "/status");
-            java.net.HttpURLConnection connection =
-                    (java.net.HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-
-            int responseCode = connection.getResponseCode();
-            boolean available = responseCode == 200;
-
-            System.out.println(available ?
-                    "✅ Grid disponible en: " + hubUrl :
-                    "❌ Grid no disponible: " + responseCode);
-
-            return available;
-        } catch (Exception e) {
-            System.err.println("❌ Error verificando Grid: " + e.getMessage());
-            return false;
-        }
+        GridHealthMonitor health = GridHealthMonitor.forHub(hubUrl);
+        boolean available = health.isAvailable();
+
+        System.out.println(available ? "✅ " + health.describe() : "❌ " + health.describe());
+
+        return available;
     }
 
     /**
@@ -204,34 +186,11 @@ public class SeleniumGridUtils {
     }
 
     /**
-     * ✅ Retry con exponential backoff
+     * ✅ Retry con exponential backoff y jitter (solo fallos transitorios, ver RetryEngine)
      */
     public static <T> T retryOperation(java.util.function.Supplier<T> operation,
                                        int maxAttempts, Duration initialDelay) {
-        Exception lastException = null;
-        Duration currentDelay = initialDelay;
-
-        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            try {
-                return operation.get();
-            } catch (Exception e) {
-                lastException = e;
-                System.out.println("⚠️ Intento " + attempt + " falló: " + e.getMessage());
-
-                if (attempt < maxAttempts) {
-                    try {
-                        Thread.sleep(currentDelay.toMillis());
-                        currentDelay = currentDelay.multipliedBy(2); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
-        }
-
-        throw new RuntimeException("Operación falló después de " + maxAttempts + " intentos",
-                lastException);
+        return RetryEngine.shared().execute("retryOperation", maxAttempts, initialDelay, operation);
     }
 
     /**
@@ -265,16 +224,16 @@ public class SeleniumGridUtils {
     }
 
     /**
-     * ✅ Logger personalizado para tests
+     * ✅ Logger personalizado para tests (asíncrono vía TestLogger)
      */
     public static void logTestStep(String stepName, String details) {
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        String threadName = Thread.currentThread().getName();
-
-        System.out.println(String.format("[%s] [%s] 🔹 %s: %s",
-                timestamp, threadName, stepName, details));
+        TestLogger.step(stepName, () -> details);
+    }
 
-        // También enviarlo a Allure
-        Allure.step(stepName + ": " + details);
+    /**
+     * ✅ Variante perezosa: el mensaje solo se construye si el nivel está activo
+     */
+    public static void logTestStep(String stepName, java.util.function.Supplier<String> details) {
+        TestLogger.step(stepName, details);
     }
-}
\ No newline at end of file
+}
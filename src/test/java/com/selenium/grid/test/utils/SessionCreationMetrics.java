@@ -0,0 +1,527 @@
+package com.selenium.grid.test.utils;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+///**
+// * ✅ MÉTRICAS DE CREACIÓN DE SESIONES Y COLA DEL GRID
+// *
+// * Separa el coste de new RemoteWebDriver(...) en cola del Grid vs arranque del navegador:
+// * - Latencia total de creación por navegador (LatencyHistogram)
+// * - Tamaño de la new-session-queue del Hub (GraphQL sessionQueueSize) muestreado
+// *   en segundo plano mientras hay creaciones en curso
+// * - Espera en cola estimada = creación - mediana de creaciones con la cola vacía
+// * - Marca la ejecución si la espera estimada supera grid.metrics.queueWaitThresholdSeconds
+// * - Exportado al final de la suite junto a las latencias por comando
+// * - Hedging opcional (-Dgrid.hedge.enabled=true): si una creación supera el p95 histórico
+// *   y GridSlotScheduler tiene un slot libre se lanza una segunda petición; se usa la primera
+// *   sesión que llega y la otra se registra y se entrega a SessionReaper
+// */
+public class SessionCreationMetrics {
+
+    private static final long POLL_MILLIS = Long.getLong("grid.metrics.queuePollMillis", 1000);
+    private static final double QUEUE_WAIT_THRESHOLD_SECONDS =
+            Double.parseDouble(System.getProperty("grid.metrics.queueWaitThresholdSeconds", "30"));
+    private static final Path REPORT_FILE =
+            Paths.get(System.getProperty("grid.metrics.sessionsFile", "target/session-creation.json"));
+    private static final String QUEUE_QUERY = "{\"query\":\"{ grid { sessionQueueSize } }\"}";
+    private static final int QUEUE_MAX_FAILURES = Integer.getInteger("grid.metrics.queueMaxFailures", 5);
+    // Resultados de fetchQueueSize() que no son un tamaño de cola
+    private static final int QUEUE_FETCH_FAILED = -1;
+    private static final int QUEUE_UNSUPPORTED = -2;
+    private static final boolean HEDGING = Boolean.parseBoolean(System.getProperty("grid.hedge.enabled", "false"));
+    private static final int HEDGE_MIN_SAMPLES = Integer.getInteger("grid.hedge.minSamples", 5);
+    private static final long HEDGE_MIN_DELAY_MILLIS = Long.getLong("grid.hedge.minDelayMillis", 1000);
+
+    // Hilos de creación (original + hedge) y de cierre de las sesiones perdedoras
+    private static final ExecutorService HEDGE_EXECUTOR = VirtualThreads.newPerTaskExecutor("session-hedge",
+            () -> Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "session-hedge");
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private static final Map<String, SessionCreationMetrics> METRICS = new ConcurrentHashMap<>();
+
+    private final String hubUrl;
+    private final String graphqlUrl;
+    private final Map<String, LatencyHistogram> creationLatency = new ConcurrentHashMap<>();
+    private final List<Sample> samples = new ArrayList<>();
+    private final Set<AtomicInteger> openWindows = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService sampler;
+    private volatile int lastQueueSize = -1;
+    private volatile long lastSampleNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    private volatile boolean queueSizeSupported = true;
+    private int consecutiveQueueFailures;
+    private boolean published;
+
+    private final AtomicLong hedgesIssued = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong primaryWinsAfterHedge = new AtomicLong();
+    private final AtomicLong hedgesSkipped = new AtomicLong();
+    private final AtomicLong losersReaped = new AtomicLong();
+    // Peticiones hedge cuya sesión sobrante aún no se ha cerrado (ocupan slot sin permiso)
+    private final Map<String, AtomicInteger> hedgesInFlight = new ConcurrentHashMap<>();
+
+    public SessionCreationMetrics(String hubUrl) {
+        this.hubUrl = hubUrl;
+        // GraphQL vive en la raíz del Hub, no bajo /wd/hub
+        this.graphqlUrl = hubUrl.replaceAll("/wd/hub/?$", "").replaceAll("/$", "") + "/graphql";
+    }
+
+    /**
+     * ✅ Métricas compartidas por Hub
+     */
+    public static SessionCreationMetrics forHub(String hubUrl) {
+        return METRICS.computeIfAbsent(hubUrl, SessionCreationMetrics::new);
+    }
+
+    /**
+     * ✅ Detiene el muestreo de la cola y olvida las métricas de un Hub (Hubs efímeros, sin publicar)
+     */
+    public static void stopHub(String hubUrl) {
+        SessionCreationMetrics metrics = METRICS.remove(hubUrl);
+        if (metrics != null) {
+            metrics.stopSampler();
+        }
+    }
+
+    /**
+     * ✅ Publica las métricas de todos los Hubs usados en la suite
+     */
+    public static void publishAll() {
+        METRICS.values().forEach(SessionCreationMetrics::publish);
+    }
+
+    /**
+     * ✅ Crea la sesión midiendo la latencia y la cola del Grid durante la creación
+     */
+    public <E extends Exception> WebDriver create(String browser, SessionFactory<E> factory) throws E {
+        // La última muestra solo vale como punto de partida si es reciente (-1 = desconocido)
+        boolean fresh = System.nanoTime() - lastSampleNanos < TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS);
+        AtomicInteger maxQueueSize = new AtomicInteger(fresh ? lastQueueSize : -1);
+        openWindows.add(maxQueueSize);
+        startSamplerIfNeeded();
+
+        long start = System.nanoTime();
+        String key = GridTopology.normalizeBrowser(browser);
+        try {
+            WebDriver driver = HEDGING ? createHedged(key, factory) : factory.create();
+            long elapsed = System.nanoTime() - start;
+            creationLatency.computeIfAbsent(key, k -> new LatencyHistogram()).recordNanos(elapsed);
+            synchronized (samples) {
+                samples.add(new Sample(key, elapsed / 1_000_000.0, maxQueueSize.get()));
+            }
+            // Toda sesión creada por el harness queda registrada para detectar fugas
+            return SessionRegistry.shared().register(driver, key);
+        } finally {
+            openWindows.remove(maxQueueSize);
+        }
+    }
+
+    /**
+     * ✅ Creación con hedging: si la petición original no termina en el p95 histórico
+     * se lanza otra; gana la primera sesión creada y la perdedora se cierra al llegar
+     */
+    private <E extends Exception> WebDriver createHedged(String browser, SessionFactory<E> factory) throws E {
+        long hedgeDelayMillis = hedgeDelayMillis(browser);
+        if (hedgeDelayMillis < 0) {
+            return factory.create();
+        }
+
+        CompletionService<WebDriver> creations = new ExecutorCompletionService<>(HEDGE_EXECUTOR);
+        Future<WebDriver> primary = creations.submit(factory::create);
+        Future<WebDriver> hedge = null;
+        AtomicInteger extraSession = null;
+        try {
+            Future<WebDriver> first = creations.poll(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+            if (first != null) {
+                return SessionCreationMetrics.<E>result(first);
+            }
+
+            if (!GridSlotScheduler.forHub(hubUrl).hasSpareSlot(browser)) {
+                // El hedge no tendría slot: solo alargaría la cola del Hub
+                hedgesSkipped.incrementAndGet();
+                return SessionCreationMetrics.<E>result(primary);
+            }
+            hedgesIssued.incrementAndGet();
+            System.out.println(String.format("🪝 Creación de %s supera el p95 (%d ms): se lanza una petición hedge",
+                    browser, hedgeDelayMillis));
+            extraSession = hedgesInFlight.computeIfAbsent(browser, k -> new AtomicInteger());
+            extraSession.incrementAndGet();
+            hedge = creations.submit(factory::create);
+
+            Throwable firstFailure = null;
+            for (int pending = 2; pending > 0; pending--) {
+                Future<WebDriver> done = creations.take();
+                try {
+                    WebDriver driver = done.get();
+                    (done == hedge ? hedgeWins : primaryWinsAfterHedge).incrementAndGet();
+                    if (pending == 2) {
+                        reapWhenReady(browser, done == hedge ? primary : hedge, extraSession);
+                    } else {
+                        extraSession.decrementAndGet();
+                    }
+                    return driver;
+                } catch (ExecutionException e) {
+                    if (firstFailure == null) firstFailure = e.getCause();
+                }
+            }
+            extraSession.decrementAndGet();
+            throw SessionCreationMetrics.<E>rethrow(firstFailure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Las creaciones en curso no se cancelan (dejarían la sesión abierta en el Grid): se cierran al llegar
+            reapWhenReady(browser, primary, null);
+            if (hedge != null) reapWhenReady(browser, hedge, extraSession);
+            throw new SessionNotCreatedException("Creación de sesión interrumpida: " + browser);
+        }
+    }
+
+    /**
+     * ✅ Sesiones hedge sobrantes de un navegador que aún ocupan un slot del Grid
+     */
+    public int hedgesInFlight(String browser) {
+        AtomicInteger inFlight = hedgesInFlight.get(GridTopology.normalizeBrowser(browser));
+        return inFlight != null ? Math.max(0, inFlight.get()) : 0;
+    }
+
+    /**
+     * ✅ Retardo del hedge: p95 histórico del navegador (-1 sin historial suficiente)
+     */
+    private long hedgeDelayMillis(String browser) {
+        LatencyHistogram histogram = creationLatency.get(browser);
+        if (histogram == null || histogram.getCount() < HEDGE_MIN_SAMPLES) {
+            return -1;
+        }
+        return Math.max(HEDGE_MIN_DELAY_MILLIS, (long) histogram.getPercentileMillis(95));
+    }
+
+    /**
+     * Espera a la sesión perdedora, la registra (si el quit falla, se cierra al final de la suite)
+     * y la entrega a SessionReaper
+     */
+    private void reapWhenReady(String browser, Future<WebDriver> loser, AtomicInteger extraSession) {
+        HEDGE_EXECUTOR.execute(() -> {
+            try {
+                WebDriver driver = SessionRegistry.shared().register(loser.get(), browser);
+                SessionReaper.shared().reap(driver, "hedge perdedora " + browser);
+                losersReaped.incrementAndGet();
+            } catch (Exception e) {
+                // La creación perdedora falló: no hay sesión que cerrar
+            } finally {
+                if (extraSession != null) {
+                    extraSession.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private static <E extends Exception> WebDriver result(Future<WebDriver> done) throws E {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            throw SessionCreationMetrics.<E>rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            // done ya ha terminado: get() no bloquea
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Creación de sesión interrumpida");
+        }
+    }
+
+    // La factoría solo lanza E o excepciones no comprobadas: se relanza la causa original
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(Throwable cause) throws E {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw (E) cause;
+    }
+
+    /**
+     * ✅ Resumen por navegador + correlación con la cola + flag de saturación
+     */
+    public Map<String, Object> snapshot() {
+        List<Sample> copy;
+        synchronized (samples) {
+            copy = new ArrayList<>(samples);
+        }
+
+        Map<String, Object> browsers = new TreeMap<>();
+        int flaggedCreations = 0;
+        double maxQueueWait = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : creationLatency.entrySet()) {
+            String browser = entry.getKey();
+            LatencyHistogram histogram = entry.getValue();
+            double baseline = baselineMillis(copy, browser);
+
+            int queued = 0;
+            double browserMaxWait = 0;
+            for (Sample sample : copy) {
+                if (!sample.browser.equals(browser) || sample.queueSize <= 0) continue;
+                queued++;
+                double wait = Math.max(0, sample.millis - baseline);
+                browserMaxWait = Math.max(browserMaxWait, wait);
+                if (wait > QUEUE_WAIT_THRESHOLD_SECONDS * 1000) flaggedCreations++;
+            }
+            maxQueueWait = Math.max(maxQueueWait, browserMaxWait);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.getCount());
+            summary.put("p50Ms", round(histogram.getPercentileMillis(50)));
+            summary.put("p95Ms", round(histogram.getPercentileMillis(95)));
+            summary.put("p99Ms", round(histogram.getPercentileMillis(99)));
+            summary.put("maxMs", round(histogram.getMaxMillis()));
+            summary.put("baselineMs", round(baseline));
+            summary.put("queuedCreations", queued);
+            summary.put("maxEstimatedQueueWaitMs", round(browserMaxWait));
+            browsers.put(browser, summary);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("browsers", browsers);
+        report.put("queueSizeSupported", queueSizeSupported);
+        report.put("maxQueueSize", copy.stream().mapToInt(s -> s.queueSize).max().orElse(-1));
+        report.put("queueLatencyCorrelation", round(correlation(copy)));
+        report.put("queueWaitThresholdSeconds", QUEUE_WAIT_THRESHOLD_SECONDS);
+        report.put("flaggedCreations", flaggedCreations);
+        report.put("queueingExceeded", flaggedCreations > 0);
+        report.put("maxEstimatedQueueWaitMs", round(maxQueueWait));
+
+        Map<String, Object> hedging = new LinkedHashMap<>();
+        hedging.put("enabled", HEDGING);
+        hedging.put("hedgesIssued", hedgesIssued.get());
+        hedging.put("hedgeWins", hedgeWins.get());
+        hedging.put("primaryWins", primaryWinsAfterHedge.get());
+        hedging.put("hedgesSkipped", hedgesSkipped.get());
+        hedging.put("losersReaped", losersReaped.get());
+        hedging.put("hedgeWinRate", hedgesIssued.get() == 0 ? 0.0
+                : round(hedgeWins.get() / (double) hedgesIssued.get()));
+        report.put("hedging", hedging);
+        return report;
+    }
+
+    /**
+     * ✅ Escribe target/session-creation.json, lo adjunta a Allure y avisa si hubo saturación
+     */
+    public synchronized void publish() {
+        stopSampler();
+        if (published || creationLatency.isEmpty()) return;
+        published = true;
+
+        Map<String, Object> report = snapshot();
+        String json = new Json().toJson(report);
+        try {
+            Files.createDirectories(REPORT_FILE.toAbsolutePath().getParent());
+            Files.write(REPORT_FILE, json.getBytes(StandardCharsets.UTF_8));
+            System.out.println("🚦 Métricas de creación de sesiones en " + REPORT_FILE);
+        } catch (IOException e) {
+            System.err.println("⚠️ No se pudo escribir " + REPORT_FILE + ": " + e.getMessage());
+        }
+        Allure.addAttachment("Session Creation Metrics", "application/json", json, ".json");
+
+        if (Boolean.TRUE.equals(report.get("queueingExceeded"))) {
+            System.err.println(String.format(
+                    "⚠️ Cola del Grid saturada: %s creaciones esperaron más de %.0fs (máx. estimado %.0f ms, cola máx. %s)",
+                    report.get("flaggedCreations"), QUEUE_WAIT_THRESHOLD_SECONDS,
+                    report.get("maxEstimatedQueueWaitMs"), report.get("maxQueueSize")));
+        }
+    }
+
+    private synchronized void startSamplerIfNeeded() {
+        if (sampler != null || !queueSizeSupported) return;
+
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grid-queue-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(this::sampleQueue, 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopSampler() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    private void sampleQueue() {
+        if (openWindows.isEmpty()) return;
+
+        int size = fetchQueueSize();
+        if (size == QUEUE_UNSUPPORTED) {
+            System.err.println("⚠️ El Hub no expone sessionQueueSize por GraphQL: se deja de muestrear la cola");
+            disableQueueSampling();
+            return;
+        }
+        if (size == QUEUE_FETCH_FAILED) {
+            // Un fallo suelto (timeout, Hub ocupado) no invalida la métrica; solo una racha
+            if (++consecutiveQueueFailures >= QUEUE_MAX_FAILURES) {
+                System.err.println("⚠️ " + consecutiveQueueFailures
+                        + " consultas seguidas de la cola fallidas: se deja de muestrear");
+                disableQueueSampling();
+            }
+            return;
+        }
+        consecutiveQueueFailures = 0;
+        lastQueueSize = size;
+        lastSampleNanos = System.nanoTime();
+        for (AtomicInteger window : openWindows) {
+            window.accumulateAndGet(size, Math::max);
+        }
+    }
+
+    private void disableQueueSampling() {
+        queueSizeSupported = false;
+        stopSampler();
+    }
+
+    /**
+     * Tamaño de la cola, QUEUE_UNSUPPORTED si el Hub no tiene el endpoint o el campo (404 o error
+     * de esquema GraphQL) o QUEUE_FETCH_FAILED ante fallos que pueden ser transitorios
+     */
+    @SuppressWarnings("unchecked")
+    private int fetchQueueSize() {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(graphqlUrl).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(2000);
+            connection.setReadTimeout(2000);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(QUEUE_QUERY.getBytes(StandardCharsets.UTF_8));
+            }
+            int status = connection.getResponseCode();
+            if (status == 404) {
+                return QUEUE_UNSUPPORTED;
+            }
+            InputStream stream = status == 200 ? connection.getInputStream() : connection.getErrorStream();
+            if (stream == null) {
+                return QUEUE_FETCH_FAILED;
+            }
+            try (InputStream body = stream) {
+                Map<String, Object> response = new Json().toType(
+                        new String(body.readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+                Map<String, Object> data = (Map<String, Object>) response.get("data");
+                Map<String, Object> grid = data == null ? null : (Map<String, Object>) data.get("grid");
+                Object size = grid == null ? null : grid.get("sessionQueueSize");
+                if (size instanceof Number) {
+                    return ((Number) size).intValue();
+                }
+                return isSchemaError(response.get("errors")) ? QUEUE_UNSUPPORTED : QUEUE_FETCH_FAILED;
+            }
+        } catch (Exception e) {
+            return QUEUE_FETCH_FAILED;
+        }
+    }
+
+    /**
+     * Error de validación GraphQL (p.ej. "Field 'sessionQueueSize' in type 'Grid' is undefined"):
+     * el Hub no tiene el campo. Otros errores (fallo interno al consultarlo) pueden ser transitorios.
+     */
+    private static boolean isSchemaError(Object errors) {
+        if (!(errors instanceof List)) return false;
+        for (Object error : (List<?>) errors) {
+            String text = String.valueOf(error);
+            if (text.contains("ValidationError") || text.contains("Validation error")
+                    || text.contains("Cannot query field") || text.contains("is undefined")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double baselineMillis(List<Sample> samples, String browser) {
+        List<Double> unqueued = new ArrayList<>();
+        List<Double> all = new ArrayList<>();
+        for (Sample sample : samples) {
+            if (!sample.browser.equals(browser)) continue;
+            all.add(sample.millis);
+            if (sample.queueSize == 0) unqueued.add(sample.millis);
+        }
+        // Sin creaciones con la cola vacía, la más rápida es la mejor aproximación
+        if (unqueued.isEmpty()) {
+            return all.stream().mapToDouble(Double::doubleValue).min().orElse(0);
+        }
+        unqueued.sort(null);
+        return unqueued.get(unqueued.size() / 2);
+    }
+
+    private static double correlation(List<Sample> samples) {
+        List<Sample> known = new ArrayList<>();
+        for (Sample sample : samples) {
+            if (sample.queueSize >= 0) known.add(sample);
+        }
+        int n = known.size();
+        if (n < 3) return 0;
+
+        double meanQueue = known.stream().mapToDouble(s -> s.queueSize).average().orElse(0);
+        double meanMillis = known.stream().mapToDouble(s -> s.millis).average().orElse(0);
+        double covariance = 0, varianceQueue = 0, varianceMillis = 0;
+        for (Sample sample : known) {
+            double dq = sample.queueSize - meanQueue;
+            double dm = sample.millis - meanMillis;
+            covariance += dq * dm;
+            varianceQueue += dq * dq;
+            varianceMillis += dm * dm;
+        }
+        if (varianceQueue == 0 || varianceMillis == 0) return 0;
+        return covariance / Math.sqrt(varianceQueue * varianceMillis);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * ✅ Creación de la sesión (normalmente new RemoteWebDriver(...))
+     */
+    @FunctionalInterface
+    public interface SessionFactory<E extends Exception> {
+        WebDriver create() throws E;
+    }
+
+    private static class Sample {
+        private final String browser;
+        private final double millis;
+        private final int queueSize;
+
+        private Sample(String browser, double millis, int queueSize) {
+            this.browser = browser;
+            this.millis = millis;
+            this.queueSize = queueSize;
+        }
+    }
+}
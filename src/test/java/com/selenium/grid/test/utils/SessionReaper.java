@@ -0,0 +1,165 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+///**
+// * ✅ CIERRE ASÍNCRONO DE SESIONES (driver.quit() EN SEGUNDO PLANO)
+// *
+// * El teardown entrega la sesión y el hilo del test queda libre de inmediato:
+// * - Pocos hilos dedicados (grid.reaper.threads) ejecutan los quit()
+// * - Cada quit() tiene un timeout (grid.reaper.quitTimeoutSeconds); si se supera se interrumpe
+// * - drain() espera a que no quede ninguna sesión por cerrar (fin de suite y shutdown hook)
+// * - Si el executor ya no acepta tareas, el quit() se hace en el hilo que llama
+// */
+public class SessionReaper {
+
+    private static final int THREADS = Integer.getInteger("grid.reaper.threads", 2);
+    private static final long QUIT_TIMEOUT_SECONDS = Long.getLong("grid.reaper.quitTimeoutSeconds", 30);
+    private static final long DRAIN_SECONDS = Long.getLong("grid.reaper.drainSeconds", 60);
+
+    private static final SessionReaper SHARED = new SessionReaper();
+
+    static {
+        try {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.drain(Duration.ofSeconds(DRAIN_SECONDS)),
+                    "session-reaper-drain"));
+        } catch (IllegalStateException e) {
+            // Primer uso desde otro shutdown hook (p.ej. el del pool): ese hook ya llama a drain()
+        }
+    }
+
+    private final ThreadPoolExecutor reapers;
+    private final ScheduledExecutorService timeouts;
+    private final Object drainMonitor = new Object();
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalQuitNanos = new AtomicLong();
+
+    public SessionReaper() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.reapers = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "session-reaper-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.reapers.allowCoreThreadTimeOut(true);
+        this.timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-reaper-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static SessionReaper shared() {
+        return SHARED;
+    }
+
+    /**
+     * ✅ Entrega una sesión para cerrarla en segundo plano; vuelve de inmediato
+     */
+    public void reap(WebDriver driver, String description) {
+        if (driver == null) return;
+
+        pending.incrementAndGet();
+        submitted.incrementAndGet();
+        try {
+            reapers.execute(() -> quit(driver, description));
+        } catch (RejectedExecutionException e) {
+            quit(driver, description);
+        }
+    }
+
+    /**
+     * ✅ Espera a que todas las sesiones entregadas estén cerradas
+     */
+    public boolean drain(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (drainMonitor) {
+            while (pending.get() > 0) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    System.err.println("⚠️ Quedan " + pending.get() + " sesiones sin cerrar tras " + timeout.getSeconds() + "s");
+                    return false;
+                }
+                try {
+                    drainMonitor.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ✅ Espera con el timeout por defecto (grid.reaper.drainSeconds)
+     */
+    public boolean drain() {
+        return drain(Duration.ofSeconds(DRAIN_SECONDS));
+    }
+
+    /**
+     * ✅ Métricas del reaper (para logs / Allure)
+     */
+    public String getMetrics() {
+        long finished = closed.get() + failed.get();
+        return String.format("Sesiones entregadas: %d | cerradas: %d | con error: %d | timeout: %d | " +
+                        "pendientes: %d | quit() medio: %.0fms",
+                submitted.get(), closed.get(), failed.get(), timedOut.get(), pending.get(),
+                finished == 0 ? 0.0 : totalQuitNanos.get() / 1e6 / finished);
+    }
+
+    private void quit(WebDriver driver, String description) {
+        long start = System.nanoTime();
+        // El timeout cuenta desde que empieza el quit(), no desde que se encola
+        Thread worker = Thread.currentThread();
+        ScheduledFuture<?> watchdog = timeouts.schedule(() -> {
+            timedOut.incrementAndGet();
+            System.err.println("⏱️ quit() de " + description + " superó " + QUIT_TIMEOUT_SECONDS + "s, interrumpido");
+            worker.interrupt();
+        }, QUIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        // quit() borra el id de la sesión: se toma antes para darla de baja en el registro
+        SessionId sessionId = driver instanceof RemoteWebDriver ? ((RemoteWebDriver) driver).getSessionId() : null;
+        try {
+            driver.quit();
+            closed.incrementAndGet();
+            if (sessionId != null) {
+                // Sin listener de actividad (drivers sin instrumentar) la baja no se hace sola
+                SessionRegistry.shared().unregister(sessionId);
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            String message = String.valueOf(e.getMessage());
+            // Los mensajes de Selenium incluyen build/system info en varias líneas: solo la primera
+            System.err.println("⚠️ Error cerrando sesión " + description + ": " + message.split("\n", 2)[0]);
+        } finally {
+            watchdog.cancel(false);
+            totalQuitNanos.addAndGet(System.nanoTime() - start);
+            if (pending.decrementAndGet() == 0) {
+                synchronized (drainMonitor) {
+                    drainMonitor.notifyAll();
+                }
+            }
+        }
+    }
+}
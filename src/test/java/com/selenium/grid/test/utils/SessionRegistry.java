@@ -0,0 +1,291 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+///**
+// * ✅ REGISTRO DE SESIONES Y DETECTOR DE FUGAS
+// *
+// * Toda sesión creada por el harness (SessionCreationMetrics.create) queda registrada con:
+// * - Hilo propietario, edad y momento del último comando WebDriver
+// * - La actividad la anota un listener que CommandLatencyRecorder.instrument añade a su
+// *   decorador (una sola capa de proxy por driver)
+// * - Se da de baja sola cuando se ejecuta quit() sobre ella
+// * - Watchdog: las sesiones instrumentadas sin comandos (ni ninguno en curso) durante
+// *   grid.leak.idleSeconds se cierran a la fuerza (antes del timeout de 300s del Hub)
+// * - Las sesiones en manos de DriverSessionPool (ociosas o precargadas) no son fugas: el pool
+// *   las marca con markPooled() y las expulsa por su cuenta; claim() las devuelve a un test
+// * - Al final de la suite y en un shutdown hook se cierra lo que quede abierto
+// * - Desactivable con -Dgrid.leak.enabled=false
+// */
+public class SessionRegistry {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("grid.leak.enabled", "true"));
+    private static final long IDLE_SECONDS = Long.getLong("grid.leak.idleSeconds", 180);
+    private static final long CHECK_SECONDS = Long.getLong("grid.leak.checkSeconds", 15);
+
+    private static final SessionRegistry SHARED = new SessionRegistry(Duration.ofSeconds(IDLE_SECONDS));
+
+    static {
+        try {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.closeAll("shutdown hook"),
+                    "session-registry-shutdown"));
+        } catch (IllegalStateException e) {
+            // Primer uso durante el apagado: no hay sesiones registradas que cerrar
+        }
+    }
+
+    private final Duration idleThreshold;
+    private final Map<SessionId, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong registered = new AtomicLong();
+    private final AtomicLong idleKills = new AtomicLong();
+    private final AtomicLong closedAtEnd = new AtomicLong();
+
+    private ScheduledExecutorService watchdog;
+
+    public SessionRegistry(Duration idleThreshold) {
+        this.idleThreshold = idleThreshold;
+    }
+
+    public static SessionRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * ✅ Registra una sesión recién creada. Devuelve el mismo driver: la actividad se anota
+     * cuando CommandLatencyRecorder.instrument lo decora con activityListener().
+     */
+    public WebDriver register(WebDriver driver, String browser) {
+        if (!ENABLED || !(driver instanceof RemoteWebDriver)) {
+            return driver;
+        }
+        RemoteWebDriver remote = (RemoteWebDriver) driver;
+        if (remote.getSessionId() == null) {
+            return driver;
+        }
+
+        TrackedSession session = new TrackedSession(remote, GridTopology.normalizeBrowser(browser));
+        sessions.put(session.sessionId, session);
+        registered.incrementAndGet();
+        startWatchdogIfNeeded();
+        return driver;
+    }
+
+    /**
+     * ✅ Listener que anota los comandos de una sesión registrada (null si no lo está).
+     * Decorar dos veces un driver anida proxies y dispara el coste de getWrappedDriver().
+     */
+    public WebDriverListener activityListener(WebDriver driver) {
+        TrackedSession session = find(driver);
+        if (session == null || session.instrumented) {
+            return null;
+        }
+        session.instrumented = true;
+        return new ActivityListener(this, session);
+    }
+
+    /**
+     * ✅ Cambia el propietario de la sesión al hilo actual (p.ej. al prestarla desde el pool)
+     */
+    public void claim(WebDriver driver) {
+        TrackedSession session = find(driver);
+        if (session != null) {
+            session.owner = Thread.currentThread();
+            session.pooled = false;
+            session.touch();
+        }
+    }
+
+    /**
+     * ✅ Da de baja una sesión ya cerrada (SessionReaper, tras un quit() correcto)
+     */
+    public void unregister(SessionId sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * ✅ Marca la sesión como propiedad del pool: el watchdog no la cierra mientras espera ociosa
+     */
+    public void markPooled(WebDriver driver) {
+        TrackedSession session = find(driver);
+        if (session != null) {
+            session.pooled = true;
+        }
+    }
+
+    /**
+     * ✅ Cierra las sesiones sin comandos desde hace más del umbral. Devuelve cuántas cerró.
+     */
+    public int closeIdle() {
+        int closed = 0;
+        long now = System.nanoTime();
+        for (TrackedSession session : sessions.values()) {
+            if (session.isIdle(now, idleThreshold) && sessions.remove(session.sessionId, session)) {
+                idleKills.incrementAndGet();
+                closed++;
+                System.err.println("🚰 Fuga de sesión: " + session.describe(now) + " sin comandos más de "
+                        + idleThreshold.getSeconds() + "s, se cierra a la fuerza");
+                SessionReaper.shared().reap(session.driver, session.sessionId.toString());
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * ✅ Cierra todas las sesiones que sigan registradas (fin de suite). Devuelve cuántas cerró.
+     */
+    public int closeAll(String reason) {
+        int closed = 0;
+        long now = System.nanoTime();
+        for (TrackedSession session : sessions.values()) {
+            if (sessions.remove(session.sessionId, session)) {
+                closedAtEnd.incrementAndGet();
+                closed++;
+                System.err.println("🚰 Sesión abierta al cerrar (" + reason + "): " + session.describe(now));
+                SessionReaper.shared().reap(session.driver, session.sessionId.toString());
+            }
+        }
+        if (closed > 0) {
+            SessionReaper.shared().drain();
+        }
+        return closed;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * ✅ Sesiones abiertas de un navegador creadas antes del instante indicado (System.nanoTime):
+     * las que la suite ya ocupaba en el Hub cuando se tomó una instantánea de /status
+     */
+    public int openSessions(String browser, long createdBeforeNanos) {
+        String normalized = GridTopology.normalizeBrowser(browser);
+        int open = 0;
+        for (TrackedSession session : sessions.values()) {
+            if (session.browser.equals(normalized) && session.createdAtNanos - createdBeforeNanos < 0) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    /**
+     * ✅ Sesiones abiertas ahora mismo (propietario, edad, inactividad)
+     */
+    public List<String> getOpenSessions() {
+        long now = System.nanoTime();
+        List<String> open = new ArrayList<>();
+        sessions.values().forEach(session -> open.add(session.describe(now)));
+        return open;
+    }
+
+    public String getMetrics() {
+        return String.format("Sesiones registradas: %d | abiertas: %d | cerradas por inactividad: %d | cerradas al final: %d",
+                registered.get(), sessions.size(), idleKills.get(), closedAtEnd.get());
+    }
+
+    private synchronized void startWatchdogIfNeeded() {
+        if (watchdog == null) {
+            watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-leak-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watchdog.scheduleWithFixedDelay(this::closeIdle, CHECK_SECONDS, CHECK_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private TrackedSession find(WebDriver driver) {
+        if (!(driver instanceof RemoteWebDriver)) {
+            return null;
+        }
+        SessionId sessionId = ((RemoteWebDriver) driver).getSessionId();
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    private static class TrackedSession {
+        private final SessionId sessionId;
+        private final RemoteWebDriver driver;
+        private final String browser;
+        private final long createdAtNanos = System.nanoTime();
+        private volatile Thread owner = Thread.currentThread();
+        private volatile long lastCommandNanos = createdAtNanos;
+        private volatile boolean instrumented;
+        private volatile boolean pooled;
+        private final AtomicInteger commandsInFlight = new AtomicInteger();
+
+        private TrackedSession(RemoteWebDriver driver, String browser) {
+            this.sessionId = driver.getSessionId();
+            this.driver = driver;
+            this.browser = browser;
+        }
+
+        private void touch() {
+            lastCommandNanos = System.nanoTime();
+        }
+
+        // Sin listener no se ve la actividad; un comando en curso tiene su propio timeout HTTP.
+        // Las del pool se expulsan por edad/usos en DriverSessionPool
+        private boolean isIdle(long now, Duration threshold) {
+            return instrumented && !pooled && commandsInFlight.get() == 0 && now - lastCommandNanos > threshold.toNanos();
+        }
+
+        private String describe(long now) {
+            return String.format("%s %s... (%s%s, edad %ds, último comando hace %ds)",
+                    browser, sessionId.toString().substring(0, Math.min(8, sessionId.toString().length())),
+                    pooled ? "en pool, último hilo " + owner.getName() : "hilo " + owner.getName(),
+                    owner.isAlive() ? "" : " terminado",
+                    TimeUnit.NANOSECONDS.toSeconds(now - createdAtNanos),
+                    TimeUnit.NANOSECONDS.toSeconds(now - lastCommandNanos));
+        }
+    }
+
+    private static class ActivityListener implements WebDriverListener {
+        private final SessionRegistry registry;
+        private final TrackedSession session;
+
+        private ActivityListener(SessionRegistry registry, TrackedSession session) {
+            this.registry = registry;
+            this.session = session;
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            session.commandsInFlight.incrementAndGet();
+            session.touch();
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            session.commandsInFlight.decrementAndGet();
+            session.touch();
+            // Un quit() fallido deja la sesión registrada para cerrarla al final
+            if (target instanceof WebDriver && method.getName().equals("quit")) {
+                registry.sessions.remove(session.sessionId, session);
+            }
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            session.commandsInFlight.decrementAndGet();
+            session.touch();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.selenium.grid.test.utils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+///**
+// * ✅ CIERRE ÚNICO DE LA SUITE
+// *
+// * ISuiteListener registrado en testng.xml; todo el cierre de la suite en un único sitio:
+// * - Vuelca los artefactos pendientes (screenshots) antes de cerrar nada
+// * - Cierra el DriverSessionPool, espera al SessionReaper y cierra las sesiones que queden
+// * - Imprime las métricas de sesiones, artefactos y reintentos
+// * - Publica latencias por comando y métricas de creación después de los quit()
+// * - Fuera de un test Allure no tiene dónde adjuntar: los informes van en un resultado
+// *   propio "Métricas de la suite"
+// */
+public class SuiteTeardownListener implements ISuiteListener {
+
+    private static final Duration ARTIFACT_FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ArtifactPipeline.shared().flush(ARTIFACT_FLUSH_TIMEOUT);
+
+        DriverSessionPool.shared().shutdown();
+        SessionReaper.shared().drain();
+        SessionRegistry.shared().closeAll("fin de suite");
+        GridHealthMonitor.stopAll();
+
+        System.out.println("🧹 " + SessionReaper.shared().getMetrics());
+        System.out.println("🚰 " + SessionRegistry.shared().getMetrics());
+        System.out.println("🔌 " + GridDriverFactory.shared().getMetrics());
+        System.out.println("📦 " + ArtifactPipeline.shared().getMetrics());
+        if (ScreenshotProcessor.isEnabled()) {
+            System.out.println("🖼️ " + ScreenshotProcessor.shared().getMetrics());
+        }
+        System.out.println("🔁 " + RetryEngine.shared().getMetrics());
+
+        publishMetrics(suite.getName());
+    }
+
+    /**
+     * ✅ Publica los informes dentro de un resultado Allure propio para que los adjuntos
+     * tengan un test al que colgarse (en onFinish ya no hay ninguno en curso)
+     */
+    private static void publishMetrics(String suiteName) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        String fullName = suiteName + ".metricasDeLaSuite";
+        lifecycle.scheduleTestCase(new TestResult()
+                .setUuid(uuid)
+                .setName("Métricas de la suite")
+                .setFullName(fullName)
+                .setHistoryId(ResultsUtils.md5(fullName))
+                .setLabels(List.of(ResultsUtils.createSuiteLabel(suiteName))));
+        lifecycle.startTestCase(uuid);
+        try {
+            CommandLatencyRecorder.shared().publish();
+            SessionCreationMetrics.publishAll();
+            lifecycle.updateTestCase(uuid, result -> result.setStatus(Status.PASSED));
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ No se pudieron publicar las métricas de la suite: " + e.getMessage());
+            lifecycle.updateTestCase(uuid, result -> result
+                    .setStatus(Status.BROKEN)
+                    .setStatusDetails(ResultsUtils.getStatusDetails(e).orElse(null)));
+        } finally {
+            lifecycle.stopTestCase(uuid);
+            lifecycle.writeTestCase(uuid);
+        }
+    }
+}
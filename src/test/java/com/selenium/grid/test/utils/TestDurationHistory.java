@@ -0,0 +1,212 @@
+package com.selenium.grid.test.utils;
+
+import org.openqa.selenium.json.Json;
+import org.testng.ITestNGMethod;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+///**
+// * ✅ HISTORIAL DE DURACIONES DE TESTS
+// *
+// * Duración estimada (segundos) de cada método de test entre ejecuciones:
+// * - Persistido en test-durations.json (grid.shard.historyFile)
+// * - Media móvil exponencial: la ejecución actual pesa la mitad
+// * - Métodos sin historial: mediana de los conocidos (o grid.shard.defaultSeconds)
+// * - Lo usan DurationShardingListener (reparto entre shards) y LongestFirstInterceptor (orden)
+// * - main() fusiona los historiales de los shards de una ejecución en CI: todos parten del mismo
+// *   fichero base y cada uno solo actualiza sus métodos
+// */
+public class TestDurationHistory {
+
+    private static final Path HISTORY_FILE =
+            Paths.get(System.getProperty("grid.shard.historyFile", "test-durations.json"));
+    private static final double DEFAULT_SECONDS =
+            Double.parseDouble(System.getProperty("grid.shard.defaultSeconds", "30"));
+    // Peso de la ejecución actual frente al historial (media móvil exponencial)
+    private static final double NEW_RUN_WEIGHT = 0.5;
+
+    private static final Json JSON = new Json();
+    private static final TestDurationHistory SHARED = new TestDurationHistory(HISTORY_FILE);
+
+    private final Path file;
+    private final Map<String, Double> history = new TreeMap<>();
+    private final Map<String, Long> currentRunMillis = new ConcurrentHashMap<>();
+    private boolean loaded;
+    private Double fallback;
+
+    public TestDurationHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * ✅ Fusión en CI: mvn exec:java -Dexec.classpathScope=test
+     *    -Dexec.mainClass=com.selenium.grid.test.utils.TestDurationHistory
+     *    -Dexec.args="--base base.json --out test-durations.json shard1.json shard2.json"
+     */
+    public static void main(String[] args) throws IOException {
+        Path base = null;
+        Path out = HISTORY_FILE;
+        List<Path> shards = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--base":
+                    base = Paths.get(args[++i]);
+                    break;
+                case "--out":
+                    out = Paths.get(args[++i]);
+                    break;
+                default:
+                    shards.add(Paths.get(args[i]));
+            }
+        }
+
+        Map<String, Double> baseline = base != null && Files.isRegularFile(base) ? read(base) : new HashMap<>();
+        List<Map<String, Double>> shardHistories = new ArrayList<>();
+        for (Path shard : shards) {
+            if (Files.isRegularFile(shard)) {
+                shardHistories.add(read(shard));
+            } else {
+                System.err.println("⚠️ Historial de shard no encontrado: " + shard);
+            }
+        }
+
+        Map<String, Double> merged = merge(baseline, shardHistories);
+        write(out, merged);
+        System.out.println("🧩 Historial fusionado: " + shardHistories.size() + " shards, "
+                + merged.size() + " métodos en " + out);
+    }
+
+    /**
+     * ✅ Parte del historial base y aplica lo que cada shard cambió o añadió respecto a él.
+     * Los shards ejecutan métodos disjuntos; si dos actualizan el mismo, se promedian.
+     */
+    static Map<String, Double> merge(Map<String, Double> base, List<Map<String, Double>> shards) {
+        Map<String, Double> merged = new TreeMap<>(base);
+        Map<String, List<Double>> updates = new HashMap<>();
+        for (Map<String, Double> shard : shards) {
+            shard.forEach((key, seconds) -> {
+                if (!seconds.equals(base.get(key))) {
+                    updates.computeIfAbsent(key, k -> new ArrayList<>()).add(seconds);
+                }
+            });
+        }
+        updates.forEach((key, values) ->
+                merged.put(key, values.stream().mapToDouble(Double::doubleValue).average().orElse(0)));
+        return merged;
+    }
+
+    public static TestDurationHistory shared() {
+        return SHARED;
+    }
+
+    /**
+     * ✅ Clave de historial: clase + método (todas las invocaciones del DataProvider suman)
+     */
+    public static String keyOf(ITestNGMethod method) {
+        return method.getQualifiedName();
+    }
+
+    /**
+     * ✅ Duración estimada en segundos
+     */
+    public synchronized double estimateSeconds(String key) {
+        loadIfNeeded();
+        Double known = history.get(key);
+        if (known != null) {
+            return known;
+        }
+        if (fallback == null) {
+            fallback = median();
+        }
+        return fallback;
+    }
+
+    /**
+     * ✅ Acumula la duración de una invocación en la ejecución actual
+     */
+    public void record(String key, long millis) {
+        currentRunMillis.merge(key, Math.max(0, millis), Long::sum);
+    }
+
+    /**
+     * ✅ Fusiona la ejecución actual con el historial y lo escribe (escritura atómica vía
+     * fichero temporal). Solo se actualizan los métodos ejecutados; el resto se conserva.
+     */
+    public synchronized void save() {
+        if (currentRunMillis.isEmpty()) return;
+
+        loadIfNeeded();
+        currentRunMillis.forEach((key, millis) -> {
+            double seconds = millis / 1000.0;
+            Double previous = history.get(key);
+            history.put(key, previous == null
+                    ? seconds
+                    : NEW_RUN_WEIGHT * seconds + (1 - NEW_RUN_WEIGHT) * previous);
+        });
+
+        try {
+            write(file, history);
+            System.out.println("⏱️ Historial de duraciones actualizado (" + currentRunMillis.size()
+                    + " métodos) en " + file);
+            currentRunMillis.clear();
+        } catch (IOException e) {
+            System.err.println("⚠️ No se pudo guardar el historial de duraciones: " + e.getMessage());
+        }
+    }
+
+    private double median() {
+        if (history.isEmpty()) {
+            return DEFAULT_SECONDS;
+        }
+        List<Double> sorted = new ArrayList<>(history.values());
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private void loadIfNeeded() {
+        if (loaded) return;
+        loaded = true;
+
+        if (!Files.isRegularFile(file)) return;
+
+        try {
+            history.putAll(read(file));
+            System.out.println("🧠 Historial de duraciones cargado: " + history.size() + " métodos");
+        } catch (Exception e) {
+            System.err.println("⚠️ Historial de duraciones ignorado (" + file + "): " + e.getMessage());
+            history.clear();
+        }
+    }
+
+    private static Map<String, Double> read(Path path) throws IOException {
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        Map<String, Object> stored = JSON.toType(content, Json.MAP_TYPE);
+        Map<String, Double> parsed = new HashMap<>();
+        stored.forEach((key, value) -> parsed.put(key, ((Number) value).doubleValue()));
+        return parsed;
+    }
+
+    // Escritura atómica vía fichero temporal
+    private static void write(Path path, Map<String, Double> durations) throws IOException {
+        Map<String, Object> snapshot = new TreeMap<>();
+        durations.forEach((key, seconds) -> snapshot.put(key, Math.round(seconds * 100.0) / 100.0));
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "test-durations", ".tmp");
+        Files.write(temp, JSON.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
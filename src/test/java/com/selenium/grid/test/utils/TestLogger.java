@@ -0,0 +1,138 @@
+package com.selenium.grid.test.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+///**
+// * ✅ LOGGER ESTRUCTURADO PARA TESTS (SLF4J + LOGBACK ASÍNCRONO)
+// *
+// * Sustituye System.out en logTestStep:
+// * - Los hilos de test solo encolan el evento (AsyncAppender) y no compiten por el lock
+// *   de la consola; bajo presión se descartan INFO/DEBUG, nunca WARN/ERROR
+// * - Campos MDC: browser y session (el hilo lo aporta el patrón %thread). Viven en el TestScope
+// *   del test y se aplican al MDC del hilo que registra, sea cual sea (withContext para tareas)
+// * - Mensajes perezosos: el Supplier solo se evalúa si el nivel está activo
+// * - Los pasos INFO se acumulan en el TestScope del test y se adjuntan a Allure de una vez
+// *   con publishSteps() (escritura en segundo plano), sin un Allure.step por línea
+// */
+public final class TestLogger {
+
+    public static final String MDC_BROWSER = "browser";
+    public static final String MDC_SESSION = "session";
+
+    private static final Logger LOG = LoggerFactory.getLogger("com.selenium.grid.test.steps");
+    private static final TestScope.Key<StringBuilder> STEPS = new TestScope.Key<>("steps");
+    private static final TestScope.Key<Map<String, String>> MDC_CONTEXT = new TestScope.Key<>("mdc");
+
+    private TestLogger() {
+    }
+
+    /**
+     * ✅ Paso del test: log INFO + línea en el resumen de pasos del test (fuera de un TestScope, solo log)
+     */
+    public static void step(String stepName, Supplier<String> details) {
+        if (!LOG.isInfoEnabled()) return;
+
+        TestScope scope = TestScope.current();
+        applyContext(scope);
+        String message = details.get();
+        LOG.info("🔹 {}: {}", stepName, message);
+
+        if (scope != null) {
+            StringBuilder steps = scope.get(STEPS);
+            if (steps == null) {
+                steps = new StringBuilder();
+                scope.set(STEPS, steps);
+            }
+            // Las tareas del test en otros hilos escriben en el mismo resumen
+            synchronized (steps) {
+                steps.append(stepName).append(": ").append(message).append('\n');
+            }
+        }
+    }
+
+    /**
+     * ✅ Adjunta a Allure los pasos acumulados del test en un único adjunto (antes de TestScope.close)
+     */
+    public static void publishSteps(TestScope scope) {
+        StringBuilder steps = scope.remove(STEPS);
+        if (steps == null) return;
+
+        byte[] content;
+        synchronized (steps) {
+            content = steps.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        ArtifactPipeline.shared().attach("Pasos del test", "text/plain", "txt", content);
+    }
+
+    /**
+     * ✅ Detalle de diagnóstico (solo log, sin step de Allure)
+     */
+    public static void debug(String stepName, Supplier<String> details) {
+        if (LOG.isDebugEnabled()) {
+            applyContext(TestScope.current());
+            LOG.debug("{}: {}", stepName, details.get());
+        }
+    }
+
+    public static void warn(String stepName, Supplier<String> details) {
+        if (LOG.isWarnEnabled()) {
+            applyContext(TestScope.current());
+            LOG.warn("⚠️ {}: {}", stepName, details.get());
+        }
+    }
+
+    /**
+     * ✅ Asocia navegador y sesión al test (TestScope) y al hilo actual (campos MDC)
+     */
+    public static void bindSession(TestScope scope, String browser, String sessionId) {
+        Map<String, String> context = new HashMap<>();
+        context.put(MDC_BROWSER, browser);
+        context.put(MDC_SESSION, sessionId.length() > 8 ? sessionId.substring(0, 8) : sessionId);
+        scope.set(MDC_CONTEXT, Collections.unmodifiableMap(context));
+        applyContext(scope);
+    }
+
+    /**
+     * ✅ Envuelve una tarea que el test lanza en otro hilo: se ejecuta con el MDC del test
+     * y deja el del hilo como estaba
+     */
+    public static Runnable withContext(TestScope scope, Runnable task) {
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            applyContext(scope);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+
+    // El hilo que registra puede no ser el que llamó a bindSession (hilos virtuales, tareas del test)
+    private static void applyContext(TestScope scope) {
+        Map<String, String> context = scope != null ? scope.get(MDC_CONTEXT) : null;
+        if (context != null && !context.get(MDC_SESSION).equals(MDC.get(MDC_SESSION))) {
+            context.forEach(MDC::put);
+        }
+    }
+
+    /**
+     * ✅ Limpia los campos MDC del hilo actual
+     */
+    public static void clearSession() {
+        MDC.remove(MDC_BROWSER);
+        MDC.remove(MDC_SESSION);
+    }
+}
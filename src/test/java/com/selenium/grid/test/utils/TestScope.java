@@ -0,0 +1,101 @@
+package com.selenium.grid.test.utils;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+///**
+// * ✅ CONTEXTO POR TEST (SUSTITUYE A LOS ThreadLocal)
+// *
+// * El estado de cada invocación (driver, wait, sesión, slot) vive en el ITestResult del test
+// * en lugar de en ThreadLocals estáticos:
+// * - No depende de qué hilo ejecuta el test (plataforma o virtual) ni de que se limpie a mano
+// * - open() en @BeforeMethod y close() en @AfterMethod (ambos reciben el ITestResult del test)
+// * - current() lo recupera desde el cuerpo del test o desde los métodos de configuración
+// * - Las tareas que el test lance en otros hilos reciben el TestScope explícitamente
+// *   (TestLogger.withContext les aplica el MDC de navegador/sesión del test)
+// */
+public final class TestScope {
+
+    private static final String ATTRIBUTE = "grid.testScope";
+
+    private final Map<Key<?>, Object> values = new ConcurrentHashMap<>();
+
+    private TestScope() {
+    }
+
+    /**
+     * ✅ Clave tipada de un valor del contexto
+     */
+    public static final class Key<T> {
+        private final String name;
+
+        public Key(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * ✅ Contexto del test indicado (lo crea si no existe) y lo enlaza al método de configuración
+     * en curso, para que current() funcione también dentro de @BeforeMethod/@AfterMethod
+     */
+    public static TestScope open(ITestResult testResult) {
+        TestScope scope = (TestScope) testResult.getAttribute(ATTRIBUTE);
+        if (scope == null) {
+            scope = new TestScope();
+            testResult.setAttribute(ATTRIBUTE, scope);
+        }
+        ITestResult running = Reporter.getCurrentTestResult();
+        if (running != null && running != testResult) {
+            running.setAttribute(ATTRIBUTE, scope);
+        }
+        return scope;
+    }
+
+    /**
+     * ✅ Contexto del test en ejecución (null si no se abrió ninguno)
+     */
+    public static TestScope current() {
+        ITestResult running = Reporter.getCurrentTestResult();
+        return running != null ? (TestScope) running.getAttribute(ATTRIBUTE) : null;
+    }
+
+    /**
+     * ✅ Vacía el contexto del test; los valores no sobreviven a la invocación
+     */
+    public static void close(ITestResult testResult) {
+        TestScope scope = (TestScope) testResult.removeAttribute(ATTRIBUTE);
+        if (scope != null) {
+            scope.values.clear();
+        }
+        ITestResult running = Reporter.getCurrentTestResult();
+        if (running != null && running != testResult) {
+            running.removeAttribute(ATTRIBUTE);
+        }
+    }
+
+    public <T> void set(Key<T> key, T value) {
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key<T> key) {
+        return (T) values.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T remove(Key<T> key) {
+        return (T) values.remove(key);
+    }
+}
@@ -0,0 +1,76 @@
+package com.selenium.grid.test.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+///**
+// * ✅ HILOS VIRTUALES OPCIONALES (JDK 21+)
+// *
+// * Las tareas del harness pasan casi todo el tiempo bloqueadas en HTTP contra el Grid:
+// * - Con -Dgrid.threads=virtual los executors por tarea (precarga, hedging) usan hilos virtuales
+// * - Se accede por reflexión: el proyecto sigue compilando con release 17 (perfil -Pjava21 para 21)
+// * - En un JDK sin hilos virtuales se avisa una vez y se usa el executor de hilos de plataforma
+// */
+public final class VirtualThreads {
+
+    private static final boolean REQUESTED = "virtual".equalsIgnoreCase(System.getProperty("grid.threads", "platform"));
+    private static final Method OF_VIRTUAL = lookup(Thread.class, "ofVirtual");
+    private static final Method PER_TASK_EXECUTOR = lookup(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+    private static final Class<?> BUILDER = builderType();
+    private static final boolean ENABLED = REQUESTED && OF_VIRTUAL != null && PER_TASK_EXECUTOR != null && BUILDER != null;
+
+    static {
+        if (REQUESTED && !ENABLED) {
+            System.err.println("⚠️ grid.threads=virtual requiere JDK 21+ (actual: "
+                    + System.getProperty("java.version") + "), se usan hilos de plataforma");
+        }
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * ✅ True si se pidió el modo virtual y el JDK lo soporta
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * ✅ Executor de un hilo virtual por tarea (nombres name-0, name-1...) o el de plataforma
+     */
+    public static ExecutorService newPerTaskExecutor(String name, Supplier<ExecutorService> platformExecutor) {
+        if (!ENABLED) {
+            return platformExecutor.get();
+        }
+        try {
+            // Métodos de la interfaz pública Thread.Builder: la implementación no es accesible
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            ThreadFactory factory = (ThreadFactory) BUILDER.getMethod("factory").invoke(builder);
+            return (ExecutorService) PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            System.err.println("⚠️ No se pudo crear el executor virtual '" + name + "': " + e + ", se usan hilos de plataforma");
+            return platformExecutor.get();
+        }
+    }
+
+    private static Class<?> builderType() {
+        try {
+            return Class.forName("java.lang.Thread$Builder");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method lookup(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}